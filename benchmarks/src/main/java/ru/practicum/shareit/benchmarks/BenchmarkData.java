@@ -0,0 +1,78 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Набор вещей одного владельца с прошлыми и будущими арендами и комментариями.
+ */
+final class BenchmarkData {
+    static final long OWNER_ID = 1L;
+    static final long BOOKER_ID = 2L;
+
+    final User owner = user(OWNER_ID, "owner");
+    final User booker = user(BOOKER_ID, "booker");
+    final List<Item> items = new ArrayList<>();
+    final List<Booking> bookings = new ArrayList<>();
+    final List<Booking> lastAndNextBookings = new ArrayList<>();
+    final List<Comment> comments = new ArrayList<>();
+
+    BenchmarkData(int itemCount, int bookingsPerItem, int commentsPerItem) {
+        LocalDateTime now = LocalDateTime.now();
+        long bookingId = 1;
+        long commentId = 1;
+        for (long itemId = 1; itemId <= itemCount; itemId++) {
+            Item item = new Item();
+            item.setId(itemId);
+            item.setName("Дрель " + itemId);
+            item.setDescription("Дрель ударная, описание " + itemId);
+            item.setAvailable(true);
+            item.setOwnerId(OWNER_ID);
+            items.add(item);
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = now.plusDays(2L * i - bookingsPerItem);
+                Booking booking = booking(bookingId++, item, start, start.plusDays(1));
+                bookings.add(booking);
+                if (i == bookingsPerItem / 2 - 1 || i == bookingsPerItem / 2) {
+                    lastAndNextBookings.add(booking);
+                }
+            }
+            for (int i = 0; i < commentsPerItem; i++) {
+                Comment comment = new Comment();
+                comment.setId(commentId++);
+                comment.setItemId(itemId);
+                comment.setAuthorId(BOOKER_ID);
+                comment.setAuthorName(booker.getName());
+                comment.setText("Комментарий " + i);
+                comment.setCreated(now.minusDays(i));
+                comments.add(comment);
+            }
+        }
+    }
+
+    private Booking booking(long id, Item item, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
+
+    private static User user(long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(name + "@email.ru");
+        return user;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.exception.WrongDataException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверки запроса на аренду в BookingService: корректный запрос и запрос,
+ * отклоняемый с WrongDataException.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingValidationBenchmark {
+
+    private BookingService bookingService;
+    private MethodHandle validateBookingDto;
+    private MethodHandle validateDatesOfBooking;
+    private BookingShortDto validDto;
+    private BookingShortDto invalidDto;
+    private Booking booking;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        bookingService = new BookingService(null, null, null, null, null);
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(BookingService.class, MethodHandles.lookup());
+        validateBookingDto = lookup.findVirtual(BookingService.class, "validateBookingDto",
+                MethodType.methodType(void.class, BookingShortDto.class));
+        validateDatesOfBooking = lookup.findVirtual(BookingService.class, "validateDatesOfBooking",
+                MethodType.methodType(void.class, Booking.class));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        validDto = new BookingShortDto();
+        validDto.setItemId(1L);
+        validDto.setStart(start.toString());
+        validDto.setEnd(start.plusDays(1).toString());
+        invalidDto = new BookingShortDto();
+        booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+    }
+
+    @Benchmark
+    public void validateBookingDto() throws Throwable {
+        validateBookingDto.invoke(bookingService, validDto);
+    }
+
+    @Benchmark
+    public Object validateBookingDtoRejected() throws Throwable {
+        try {
+            validateBookingDto.invoke(bookingService, invalidDto);
+            return null;
+        } catch (WrongDataException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void validateDatesOfBooking() throws Throwable {
+        validateDatesOfBooking.invoke(bookingService, booking);
+    }
+}
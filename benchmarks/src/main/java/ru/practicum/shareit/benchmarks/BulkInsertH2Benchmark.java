@@ -0,0 +1,123 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовая вставка вещей и аренд через репозитории Spring Data поверх H2 в памяти.
+ * Каждый вызов сбрасывает вставки в базу и откатывает транзакцию, чтобы таблицы не росли.
+ * batchSize задаёт hibernate.jdbc.batch_size: 1 - каждая вставка отдельным запросом.
+ * В режиме tcp база работает как отдельный сервер H2, и каждый запрос проходит через сокет,
+ * как с настоящей базой данных.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertH2Benchmark {
+
+    @Param({"100"})
+    int rowCount;
+
+    @Param({"1", "50"})
+    int batchSize;
+
+    @Param({"mem", "tcp"})
+    String database;
+
+    private Server tcpServer;
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private TransactionTemplate transactionTemplate;
+    private User owner;
+    private User booker;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1";
+        if ("tcp".equals(database)) {
+            tcpServer = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + tcpServer.getPort() + "/mem:bulk;DB_CLOSE_DELAY=-1";
+        }
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=" + url,
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (tcpServer != null) {
+            tcpServer.stop();
+        }
+    }
+
+    @Benchmark
+    public int insertItemsAndBookings() {
+        return transactionTemplate.execute(status -> {
+            List<Item> items = new ArrayList<>(rowCount);
+            List<Booking> bookings = new ArrayList<>(rowCount);
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            for (int i = 0; i < rowCount; i++) {
+                Item item = new Item();
+                item.setName("Дрель " + i);
+                item.setDescription("Дрель ударная, описание " + i);
+                item.setAvailable(true);
+                item.setOwnerId(owner.getId());
+                items.add(item);
+
+                Booking booking = new Booking();
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setStart(start);
+                booking.setEnd(start.plusDays(1));
+                booking.setStatus(BookingStatus.WAITING);
+                bookings.add(booking);
+            }
+            itemRepository.saveAll(items);
+            int saved = bookingRepository.saveAllAndFlush(bookings).size();
+            status.setRollbackOnly();
+            return saved;
+        });
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@email.ru");
+        return user;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Добавление комментария пользователем с разной длиной истории аренд поверх H2 в памяти.
+ * Каждый вызов откатывает транзакцию, чтобы комментарии не накапливались.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentPostH2Benchmark {
+    private static final int ITEM_COUNT = 100;
+
+    @Param({"10", "1000", "10000"})
+    int bookingHistory;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private TransactionTemplate transactionTemplate;
+    private Long bookerId;
+    private Long itemId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:comments;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.executeWithoutResult(status -> seed());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CommentDto addNewComment() {
+        return transactionTemplate.execute(status -> {
+            CommentDto commentDto = new CommentDto();
+            commentDto.setText("Отличная дрель");
+            CommentDto saved = itemService.addNewComment(bookerId, itemId, commentDto);
+            status.setRollbackOnly();
+            return saved;
+        });
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+
+        User owner = userRepository.save(user("owner"));
+        User booker = userRepository.save(user("booker"));
+        bookerId = booker.getId();
+        List<Item> items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            Item item = new Item();
+            item.setName("Дрель " + i);
+            item.setDescription("Дрель ударная, описание " + i);
+            item.setAvailable(true);
+            item.setOwnerId(owner.getId());
+            items.add(item);
+        }
+        itemRepository.saveAll(items);
+        itemId = items.get(0).getId();
+
+        // история арендатора распределена по всем вещям, аренды идут по дню назад от текущей даты
+        List<Booking> bookings = new ArrayList<>(bookingHistory);
+        LocalDateTime start = LocalDateTime.now().minusDays(bookingHistory + 1L);
+        for (int i = 0; i < bookingHistory; i++) {
+            Booking booking = new Booking();
+            booking.setItem(items.get(i % ITEM_COUNT));
+            booking.setBooker(booker);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(12));
+            booking.setStatus(BookingStatus.APPROVED);
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@email.ru");
+        return user;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoMapper;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private final BookingDtoMapper bookingDtoMapper = new BookingDtoMapper();
+    private final ItemDtoMapper itemDtoMapper = new ItemDtoMapper();
+    private Booking booking;
+    private Item item;
+    private ItemDto itemDto;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(1, 2, 0);
+        booking = data.bookings.get(0);
+        item = data.items.get(0);
+        itemDto = itemDtoMapper.mapToDto(item);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingDtoMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemDtoMapper.mapToDto(item);
+    }
+
+    @Benchmark
+    public Item dtoToItem() {
+        return itemDtoMapper.mapToItem(itemDto);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест шлюза: держит заданное число одновременных запросов и печатает
+ * пропускную способность и перцентили задержки.
+ * <p>
+ * Режим stub запускает заглушку сервера ShareIt, отвечающую на любой запрос с задержкой,
+ * чтобы измерять сам шлюз, а не базу данных:
+ * <pre>
+ * java -cp benchmarks.jar ru.practicum.shareit.benchmarks.GatewayLoadTest stub 9090 50
+ * java -cp benchmarks.jar ru.practicum.shareit.benchmarks.GatewayLoadTest load http://localhost:8080/users/1 2000 30
+ * </pre>
+ */
+public class GatewayLoadTest {
+    private static final String STUB_BODY = "{\"id\":1,\"email\":\"user@email.ru\",\"name\":\"user\"}";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && "stub".equals(args[0])) {
+            stub(Integer.parseInt(args[1]), Long.parseLong(args[2]));
+        } else if (args.length == 4 && "load".equals(args[0])) {
+            load(URI.create(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+        } else {
+            System.out.println("usage: stub <port> <delayMs> | load <url> <connections> <seconds>");
+        }
+    }
+
+    private static void stub(int port, long delayMs) throws IOException {
+        byte[] body = STUB_BODY.getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 8192);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        System.out.printf("stub server on port %d, delay %d ms%n", port, delayMs);
+    }
+
+    private static void load(URI uri, int connections, int seconds) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", "1")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        Semaphore inFlight = new Semaphore(connections);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(1, seconds / 5));
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        inFlight.release();
+                        if (start < warmupEnd) {
+                            return;
+                        }
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - start);
+                        }
+                    });
+        }
+        inFlight.acquire(connections);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("connections=%d requests=%d errors=%d throughput=%.0f req/s%n",
+                connections, sorted.length, errors.get(), sorted.length / (double) seconds);
+        if (sorted.length > 0) {
+            System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                    percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(sorted.length * percentile))] / 1e6;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Заглушки репозиториев в памяти: реализуют только перечисленные методы,
+ * остальные бросают UnsupportedOperationException.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static <T> Builder<T> of(Class<T> repositoryType) {
+        return new Builder<>(repositoryType);
+    }
+
+    static final class Builder<T> {
+        private final Class<T> repositoryType;
+        private final Map<String, Function<Object[], Object>> methods = new HashMap<>();
+
+        private Builder(Class<T> repositoryType) {
+            this.repositoryType = repositoryType;
+        }
+
+        Builder<T> on(String methodName, Function<Object[], Object> body) {
+            methods.put(methodName, body);
+            return this;
+        }
+
+        T build() {
+            Object repository = Proxy.newProxyInstance(repositoryType.getClassLoader(),
+                    new Class<?>[]{repositoryType}, (proxy, method, args) -> {
+                        Function<Object[], Object> body = methods.get(method.getName());
+                        if (body != null) {
+                            return body.apply(args);
+                        }
+                        if (method.getDeclaringClass() == Object.class) {
+                            return method.getName().equals("toString") ? repositoryType.getSimpleName()
+                                    : method.getName().equals("hashCode") ? System.identityHashCode(proxy)
+                                    : proxy == args[0];
+                        }
+                        throw new UnsupportedOperationException(method.toString());
+                    });
+            return repositoryType.cast(repository);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск по индексу вещей в памяти (shareit.search.engine=memory) на каталоге из itemCount вещей:
+ * короткие запросы из 1-3 символов берут один список вхождений, длинные пересекают списки триграмм.
+ * Первая страница из 10 вещей и страница после курсора в середине каталога.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dfile.encoding=UTF-8"})
+public class ItemSearchIndexBenchmark {
+    private static final String[] WORDS = {"дрель", "шуруповерт", "отвертка", "пила", "ножовка", "молоток",
+        "лестница", "палатка", "велосипед", "самокат", "аккумуляторная", "ударная", "садовая", "детский",
+        "складная", "электрическая", "бензиновая", "туристическая", "новая", "почти", "простая", "набор"};
+
+    @Param({"500000"})
+    int itemCount;
+
+    @Param({"д", "ел", "пил", "дрель", "аккумуляторная дрель", "складная палатка 4"})
+    String query;
+
+    private ItemSearchIndex itemSearchIndex;
+    private long middleId;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>(itemCount);
+        for (long id = 1; id <= itemCount; id++) {
+            Item item = new Item();
+            item.setId(id);
+            item.setName(word(random) + " " + word(random) + " " + random.nextInt(100));
+            item.setDescription(word(random) + " " + word(random) + " " + word(random));
+            item.setAvailable(random.nextInt(10) != 0);
+            item.setOwnerId(1 + id % 1000);
+            items.add(item);
+        }
+        ItemRepository itemRepository = InMemoryRepositories.of(ItemRepository.class)
+                .on("findAll", args -> items)
+                .build();
+        itemSearchIndex = new ItemSearchIndex(itemRepository, "memory");
+        itemSearchIndex.rebuild();
+        middleId = itemCount / 2;
+        if (itemSearchIndex.search(query, middleId, 0L, 10).size() < 10) {
+            throw new IllegalStateException("Запрос '" + query + "' находит меньше 10 вещей после курсора");
+        }
+    }
+
+    @Benchmark
+    public List<Item> firstPage() {
+        return itemSearchIndex.search(query, 0L, 0L, 10);
+    }
+
+    @Benchmark
+    public List<Item> pageAfterCursor() {
+        return itemSearchIndex.search(query, middleId, 0L, 10);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
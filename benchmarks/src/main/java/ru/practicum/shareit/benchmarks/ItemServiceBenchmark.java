@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDtoMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserExistenceChecker;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сборка списка вещей владельца: комментарии и ближайшие аренды
+ * с репозиториями-заглушками в памяти, без затрат на базу данных.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int itemCount;
+
+    @Param({"10"})
+    int commentsPerItem;
+
+    private ItemService itemService;
+    private List<ItemDto> itemDtos;
+    private MethodHandle findLastAndNextBookings;
+    private MethodHandle findCommentsForItems;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        BenchmarkData data = new BenchmarkData(itemCount, 4, commentsPerItem);
+        ItemRepository itemRepository = InMemoryRepositories.of(ItemRepository.class)
+                .on("findAllByOwnerId", args -> data.items)
+                .build();
+        UserRepository userRepository = InMemoryRepositories.of(UserRepository.class)
+                .on("existsById", args -> true)
+                .build();
+        BookingRepository bookingRepository = InMemoryRepositories.of(BookingRepository.class)
+                .on("findLastAndNextBookingsForItems", args -> data.lastAndNextBookings)
+                .build();
+        CommentRepository commentRepository = InMemoryRepositories.of(CommentRepository.class)
+                .on("findAllForItems", args -> data.comments)
+                .build();
+        ItemDtoMapper itemDtoMapper = new ItemDtoMapper();
+        itemService = new ItemService(itemRepository, userRepository, new UserExistenceChecker(userRepository),
+                bookingRepository, commentRepository, InMemoryRepositories.of(ItemRequestRepository.class).build(),
+                new ItemSearchIndex(itemRepository, "like"), event -> { }, itemDtoMapper, new BookingDtoMapper(),
+                new CommentDtoMapper());
+        itemDtos = data.items.stream()
+                .map(itemDtoMapper::mapToDto)
+                .collect(Collectors.toList());
+
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(ItemService.class, MethodHandles.lookup());
+        findLastAndNextBookings = lookup.findVirtual(ItemService.class, "findLastAndNextBookings",
+                MethodType.methodType(List.class, List.class, Long.class));
+        findCommentsForItems = lookup.findVirtual(ItemService.class, "findCommentsForItems",
+                MethodType.methodType(List.class, List.class, Integer.class));
+    }
+
+    @Benchmark
+    public Object findLastAndNextBookings() throws Throwable {
+        return findLastAndNextBookings.invoke(itemService, itemDtos, BenchmarkData.OWNER_ID);
+    }
+
+    @Benchmark
+    public Object findCommentsForItems() throws Throwable {
+        return findCommentsForItems.invoke(itemService, itemDtos, null);
+    }
+
+    @Benchmark
+    public List<ItemDto> getItemsByUserId() {
+        return itemService.getItemsByUserId(BenchmarkData.OWNER_ID, null, null, null);
+    }
+}
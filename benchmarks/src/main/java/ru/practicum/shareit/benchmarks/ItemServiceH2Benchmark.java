@@ -0,0 +1,110 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Те же сценарии ItemService, что и в ItemServiceBenchmark, но с репозиториями
+ * Spring Data поверх H2 в памяти: учитывает запросы и работу Hibernate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceH2Benchmark {
+
+    @Param({"10", "100"})
+    int itemCount;
+
+    @Param({"10"})
+    int commentsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private Long ownerId;
+    private Long itemId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemService.class);
+        seed(new BenchmarkData(itemCount, 4, commentsPerItem));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> getItemsByUserId() {
+        return itemService.getItemsByUserId(ownerId, null, null, null);
+    }
+
+    @Benchmark
+    public ItemDto getItemById() {
+        return itemService.getItemById(itemId, ownerId);
+    }
+
+    private void seed(BenchmarkData data) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        User owner = saveUser(userRepository, data.owner);
+        User booker = saveUser(userRepository, data.booker);
+        ownerId = owner.getId();
+        Map<Long, Item> savedItems = new HashMap<>();
+        // save() у новой сущности заполняет id в том же объекте, поэтому аренды уже ссылаются на сохранённые вещи
+        for (Item item : data.items) {
+            Long sourceId = item.getId();
+            item.setId(null);
+            item.setOwnerId(ownerId);
+            savedItems.put(sourceId, itemRepository.save(item));
+        }
+        itemId = savedItems.values().iterator().next().getId();
+        for (Booking booking : data.bookings) {
+            booking.setId(null);
+            booking.setBooker(booker);
+            bookingRepository.save(booking);
+        }
+        for (Comment comment : data.comments) {
+            comment.setId(null);
+            comment.setItemId(savedItems.get(comment.getItemId()).getId());
+            comment.setAuthorId(booker.getId());
+            commentRepository.save(comment);
+        }
+    }
+
+    private User saveUser(UserRepository userRepository, User user) {
+        user.setId(null);
+        return userRepository.save(user);
+    }
+}
@@ -1,61 +1,89 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayRequestCoalescer;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerClientProperties;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory serverRequestFactory,
+                         ServerClientProperties clientProperties,
+                         GatewayResponseCache responseCache,
+                         GatewayRequestCoalescer requestCoalescer) {
         super(
                 builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                clientProperties.isPassThrough(),
+                responseCache,
+                requestCoalescer
         );
     }
 
-    public ResponseEntity<Object> getBookingsOfUser(Long userId, String state, Integer from, Integer size) {
-        if (from == null || size == null) {
-            return get("?state=" + state, userId);
-        }
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookingsOfUser(Long userId, String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = pageParameters(state, from, size, after);
+        return get(queryOf(parameters), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingsForItems(Long userId, String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = pageParameters(state, from, size, after);
+        return get("/owner" + queryOf(parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsForItems(Long userId, String state, Integer from, Integer size) {
-        if (from == null || size == null) {
-            return get("/owner?state=" + state, userId);
+    private static Map<String, Object> pageParameters(String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", state);
+        if (after != null) {
+            parameters.put("after", after);
+            parameters.put("size", size);
+        } else if (from != null && size != null) {
+            parameters.put("from", from);
+            parameters.put("size", size);
         }
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return parameters;
     }
 
     public ResponseEntity<Object> addBooking(Long userId, BookingDto bookingDto) {
-        return post("", userId, bookingDto);
+        ResponseEntity<Object> response = post("", userId, bookingDto);
+        evictCached("/items/" + bookingDto.getItemId());
+        return response;
+    }
+
+    public ResponseEntity<Object> addBookings(Long userId, List<BookingDto> bookingDtos) {
+        ResponseEntity<Object> response = post("/batch", userId, bookingDtos);
+        bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .distinct()
+                .forEach(itemId -> evictCached("/items/" + itemId));
+        return response;
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId, String ifNoneMatch) {
+        return conditionalGet("/" + bookingId, userId, ifNoneMatch);
     }
 
     public ResponseEntity<Object> updateBooking(long userId, Long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("approved", approved);
+        ResponseEntity<Object> response = patch("/" + bookingId + queryOf(parameters), userId, parameters, null);
+        evictCached("/items");
+        return response;
     }
 }
\ No newline at end of file
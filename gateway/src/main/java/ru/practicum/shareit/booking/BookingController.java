@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Controller;
@@ -9,16 +11,22 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/bookings")
 @Slf4j
 @Validated
 public class BookingController {
     private final BookingClient bookingClient;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 500;
 
     public BookingController(BookingClient bookingClient) {
         this.bookingClient = bookingClient;
@@ -28,18 +36,20 @@ public class BookingController {
     ResponseEntity<Object> getBookings(@RequestHeader(USER_ID_HEADER) Long userId,
                                        @RequestParam(name = "state", defaultValue = "ALL") String state,
                                        @PositiveOrZero @Nullable @RequestParam(name = "from") Integer from,
-                                       @Positive @Nullable @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                       @Positive @Nullable @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                       @Nullable @RequestParam(name = "after", required = false) String after) {
         log.info("Get bookings request. User id={}", userId);
-        return bookingClient.getBookingsOfUser(userId, state, from, size);
+        return bookingClient.getBookingsOfUser(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
     ResponseEntity<Object> getBookingsOfUsersItems(@RequestHeader(value = USER_ID_HEADER) Long userId,
                                                    @Nullable @RequestParam(name = "state", defaultValue = "ALL") String state,
                                                    @PositiveOrZero @Nullable @RequestParam(name = "from", required = false) Integer from,
-                                                   @Positive @Nullable @RequestParam(name = "size", required = false) Integer pageSize) {
+                                                   @Positive @Nullable @RequestParam(name = "size", required = false) Integer pageSize,
+                                                   @Nullable @RequestParam(name = "after", required = false) String after) {
         log.info("Get bookings of all items of user id={}", userId);
-        return bookingClient.getBookingsForItems(userId, state, from, pageSize);
+        return bookingClient.getBookingsForItems(userId, state, from, pageSize, after);
     }
 
     @PostMapping
@@ -50,11 +60,19 @@ public class BookingController {
         return bookingClient.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                              @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull BookingDto> bookingDtos) {
+        log.info("Creating {} bookings, userId={}", bookingDtos.size(), userId);
+        return bookingClient.addBookings(userId, bookingDtos);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @PathVariable Long bookingId) {
+                                             @PathVariable Long bookingId,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get booking {}, userId={}", bookingId, userId);
-        return bookingClient.getBookingById(userId, bookingId);
+        return bookingClient.getBookingById(userId, bookingId, ifNoneMatch);
     }
 
     @PatchMapping("/{bookingId}")
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient serverWebClient) {
+        super(serverWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsOfUser(Long userId, String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = pageParameters(state, from, size, after);
+        return get(queryOf(parameters), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsForItems(Long userId, String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = pageParameters(state, from, size, after);
+        return get("/owner" + queryOf(parameters), userId, parameters);
+    }
+
+    private static Map<String, Object> pageParameters(String state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", state);
+        if (after != null) {
+            parameters.put("after", after);
+            parameters.put("size", size);
+        } else if (from != null && size != null) {
+            parameters.put("from", from);
+            parameters.put("size", size);
+        }
+        return parameters;
+    }
+
+    public Mono<ResponseEntity<Object>> addBooking(Long userId, BookingDto bookingDto) {
+        return post("", userId, bookingDto);
+    }
+
+    public Mono<ResponseEntity<Object>> addBookings(Long userId, List<BookingDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingById(Long userId, Long bookingId, String ifNoneMatch) {
+        return conditionalGet("/" + bookingId, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> updateBooking(long userId, Long bookingId, Boolean approved) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("approved", approved);
+        return patch("/" + bookingId + queryOf(parameters), userId, parameters, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/bookings")
+@Slf4j
+@Validated
+public class ReactiveBookingController {
+    private final ReactiveBookingClient bookingClient;
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 500;
+
+    public ReactiveBookingController(ReactiveBookingClient bookingClient) {
+        this.bookingClient = bookingClient;
+    }
+
+    @GetMapping
+    Mono<ResponseEntity<Object>> getBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                       @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                       @PositiveOrZero @Nullable @RequestParam(name = "from") Integer from,
+                                       @Positive @Nullable @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                       @Nullable @RequestParam(name = "after", required = false) String after) {
+        log.info("Get bookings request. User id={}", userId);
+        return bookingClient.getBookingsOfUser(userId, state, from, size, after);
+    }
+
+    @GetMapping("/owner")
+    Mono<ResponseEntity<Object>> getBookingsOfUsersItems(@RequestHeader(value = USER_ID_HEADER) Long userId,
+                                                   @Nullable @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                   @PositiveOrZero @Nullable @RequestParam(name = "from", required = false) Integer from,
+                                                   @Positive @Nullable @RequestParam(name = "size", required = false) Integer pageSize,
+                                                   @Nullable @RequestParam(name = "after", required = false) String after) {
+        log.info("Get bookings of all items of user id={}", userId);
+        return bookingClient.getBookingsForItems(userId, state, from, pageSize, after);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addBooking(@RequestHeader(USER_ID_HEADER) long userId,
+                                             @RequestBody @Valid BookingDto bookingDto) {
+        log.info("Creating booking, userId={}", userId);
+        return bookingClient.addBooking(userId, bookingDto);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                                    @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull BookingDto> bookingDtos) {
+        log.info("Creating {} bookings, userId={}", bookingDtos.size(), userId);
+        return bookingClient.addBookings(userId, bookingDtos);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(USER_ID_HEADER) long userId,
+                                             @PathVariable Long bookingId,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Get booking {}, userId={}", bookingId, userId);
+        return bookingClient.getBookingById(userId, bookingId, ifNoneMatch);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Object>> updateBooking(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                @PathVariable Long bookingId,
+                                                @RequestParam Boolean approved) {
+        log.info("Update booking state 'approved' to {}. Booking id={}", approved, bookingId);
+        return bookingClient.updateBooking(userId, bookingId, approved);
+    }
+}
@@ -5,14 +5,38 @@ import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "content-length", "date");
+
     protected final RestTemplate rest;
+    private final boolean passThrough;
+    private final GatewayResponseCache responseCache;
+    private final GatewayRequestCoalescer requestCoalescer;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, false, null, null);
+    }
+
+    /**
+     * @param passThrough      передавать клиенту байты и заголовки ответа сервера без разбора JSON
+     * @param responseCache    кэш ответов для {@link #cachedGet}, очищаемый изменяющими запросами
+     * @param requestCoalescer объединение одновременных одинаковых GET в один запрос к серверу
+     */
+    public BaseClient(RestTemplate rest, boolean passThrough, @Nullable GatewayResponseCache responseCache,
+                      @Nullable GatewayRequestCoalescer requestCoalescer) {
         this.rest = rest;
+        this.passThrough = passThrough;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -27,6 +51,60 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * Условный GET: сервер отвечает 304 без тела, если представление не изменилось с ETag из ifNoneMatch.
+     */
+    protected ResponseEntity<Object> conditionalGet(String path, Long userId, @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, ifNoneMatch);
+    }
+
+    /**
+     * GET отдельного ресурса, ответ на который можно отдать из кэша шлюза.
+     */
+    protected ResponseEntity<Object> cachedGet(String path, Long userId) {
+        return cachedGet(path, userId, null);
+    }
+
+    /**
+     * Условный GET через кэш шлюза. Свежая запись отдаётся без сервера, устаревшая запись с ETag
+     * проверяется у сервера условным запросом; с ifNoneMatch клиента сравнивается ETag ответа кэша;
+     * без кэша заголовок If-None-Match передаётся серверу.
+     */
+    protected ResponseEntity<Object> cachedGet(String path, Long userId, @Nullable String ifNoneMatch) {
+        if (responseCache == null) {
+            return conditionalGet(path, userId, ifNoneMatch);
+        }
+        ResponseEntity<Object> response = responseCache.get(rest.getUriTemplateHandler().expand(path), userId,
+                cachedETag -> conditionalGet(path, userId, cachedETag));
+        String eTag = response.getHeaders().getETag();
+        if (ifNoneMatch != null && eTag != null && response.getStatusCode() == HttpStatus.OK
+                && matchesETag(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return response;
+    }
+
+    /**
+     * Удаляет из кэша ответы ресурса, который меняется как побочный эффект запроса к другому ресурсу.
+     */
+    protected void evictCached(String path) {
+        if (responseCache != null) {
+            responseCache.evict(path);
+        }
+        if (requestCoalescer != null) {
+            requestCoalescer.forget(path);
+        }
+    }
+
+    protected void evictAllCached() {
+        if (responseCache != null) {
+            responseCache.evictAll();
+        }
+        if (requestCoalescer != null) {
+            requestCoalescer.forgetAll();
+        }
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -76,7 +154,44 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(method, path, userId, parameters, body, null);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                          @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                          @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        if (method == HttpMethod.GET) {
+            if (requestCoalescer == null) {
+                return exchange(method, path, headers, parameters, body);
+            }
+            return requestCoalescer.get(expand(path, parameters), userId, ifNoneMatch,
+                    () -> exchange(method, path, headers, parameters, body));
+        }
+        ResponseEntity<Object> response = exchange(method, path, headers, parameters, body);
+        if (responseCache != null || requestCoalescer != null) {
+            String resource = resourceOf(expand(path, parameters));
+            if (resource != null) {
+                evictCached(resource);
+            }
+        }
+        return response;
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        if (passThrough) {
+            return passThrough(method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -91,6 +206,73 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private <T> ResponseEntity<Object> passThrough(HttpMethod method, String path,
+                                                   @Nullable Map<String, Object> parameters,
+                                                   HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(endToEndHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return ResponseEntity.status(shareitServerResponse.getStatusCode())
+                .headers(endToEndHeaders(shareitServerResponse.getHeaders()))
+                .body(shareitServerResponse.getBody());
+    }
+
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Отдельный ресурс, к которому относится адрес: /items/1/comment -> /items/1, /items -> null.
+     */
+    @Nullable
+    static String resourceOf(URI uri) {
+        String[] segments = uri.getRawPath().split("/");
+        if (segments.length < 3) {
+            return null;
+        }
+        return "/" + segments[1] + "/" + segments[2];
+    }
+
+    /**
+     * Строит строку запроса вида ?name={name}&... из непустых параметров, удаляя пустые из parameters.
+     */
+    protected static String queryOf(Map<String, Object> parameters) {
+        parameters.values().removeIf(Objects::isNull);
+        if (parameters.isEmpty()) {
+            return "";
+        }
+        return parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&", "?", ""));
+    }
+
+    static HttpHeaders endToEndHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        return headers;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -107,6 +289,9 @@ public class BaseClient {
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        if (response.getHeaders().getETag() != null) {
+            responseBuilder.eTag(response.getHeaders().getETag());
+        }
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
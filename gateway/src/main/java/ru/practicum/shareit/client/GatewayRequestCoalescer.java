@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных одинаковых GET-запросов к серверу: пока первый запрос выполняется,
+ * остальные с тем же адресом, X-Sharer-User-Id и If-None-Match ждут его ответа.
+ * Изменяющий запрос к ресурсу отвязывает новые GET от уже начатых, чтобы они не получили старый ответ.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class GatewayRequestCoalescer {
+    static final String METRIC_NAME = "shareit.gateway.client.get";
+
+    private final boolean enabled;
+    private final Map<Key, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstreamCalls;
+    private final Counter coalescedCalls;
+
+    public GatewayRequestCoalescer(ServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isCoalesceGets();
+        this.upstreamCalls = Counter.builder(METRIC_NAME)
+                .description("GET-запросы шлюза к серверу ShareIt")
+                .tag("coalesced", "false")
+                .register(meterRegistry);
+        this.coalescedCalls = Counter.builder(METRIC_NAME)
+                .description("GET-запросы шлюза к серверу ShareIt")
+                .tag("coalesced", "true")
+                .register(meterRegistry);
+        meterRegistry.gauge(METRIC_NAME + ".in.flight", inFlight, Map::size);
+    }
+
+    public ResponseEntity<Object> get(URI uri, Long userId, String ifNoneMatch,
+                                      Supplier<ResponseEntity<Object>> call) {
+        if (!enabled) {
+            upstreamCalls.increment();
+            return call.get();
+        }
+        Key key = new Key(uri.getRawPath(), uri.toString(), userId, ifNoneMatch);
+        CompletableFuture<ResponseEntity<Object>> own = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalescedCalls.increment();
+            return join(running);
+        }
+        upstreamCalls.increment();
+        try {
+            ResponseEntity<Object> response = call.get();
+            own.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Новые GET ресурса path и вложенных в него ресурсов больше не присоединяются к уже начатым.
+     */
+    public void forget(String path) {
+        String nested = path.endsWith("/") ? path : path + "/";
+        inFlight.keySet().removeIf(key -> key.getPath().equals(path) || key.getPath().startsWith(nested));
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    private static ResponseEntity<Object> join(CompletableFuture<ResponseEntity<Object>> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Value
+    private static class Key {
+        String path;
+        String uri;
+        Long userId;
+        String ifNoneMatch;
+    }
+}
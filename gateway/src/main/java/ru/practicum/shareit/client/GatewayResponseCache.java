@@ -0,0 +1,173 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Кэш успешных ответов сервера на GET отдельных ресурсов.
+ * Ключ - адрес запроса и X-Sharer-User-Id: владелец и другие пользователи видят вещь по-разному.
+ * Пока с записи или её последней проверки не прошёл ttl, она отдаётся без обращения к серверу.
+ * После ttl запись с ETag проверяется у сервера условным запросом, а запись без ETag
+ * (пользователи, запросы) загружается заново. По умолчанию ttl нулевой, см. ResponseCacheProperties.ttl.
+ * Изменяющий запрос к ресурсу или ко всей коллекции (/items) меняет её поколение: записи
+ * прежнего поколения больше не выдаются, а ответы, загруженные до изменения, не попадают в новое.
+ * Метрика shareit.gateway.cache.requests отделяет ответы без обращения к серверу (result=fresh)
+ * от подтверждённых сервером 304 (result=not_modified) и загруженных заново (result=loaded).
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class GatewayResponseCache {
+    static final String CACHE_NAME = "gatewayResponses";
+    static final String METRIC_NAME = "shareit.gateway.cache.requests";
+
+    private final Cache<Key, Entry> cache;
+    /**
+     * Текущие поколения коллекций и ресурсов; вытесненное поколение создаётся заново,
+     * и записи прежнего просто перестают выдаваться.
+     */
+    private final Cache<String, Generation> generations;
+    private final Ticker ticker;
+    private final long ttlNanos;
+    private final Counter freshHits;
+    private final Counter notModifiedHits;
+    private final Counter loads;
+
+    @Autowired
+    public GatewayResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    GatewayResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        this.ticker = ticker;
+        this.ttlNanos = properties.getTtl() != null ? properties.getTtl().toNanos() : Duration.ZERO.toNanos();
+        this.freshHits = counter(meterRegistry, "fresh");
+        this.notModifiedHits = counter(meterRegistry, "not_modified");
+        this.loads = counter(meterRegistry, "loaded");
+        if (!properties.isEnabled()) {
+            this.cache = null;
+            this.generations = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .ticker(ticker)
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .ticker(ticker)
+                .build();
+        meterRegistry.gauge(METRIC_NAME + ".size", cache, Cache::estimatedSize);
+    }
+
+    /**
+     * @param loader запрос к серверу; получает ETag записи из кэша для If-None-Match или null
+     */
+    public ResponseEntity<Object> get(URI uri, Long userId, Function<String, ResponseEntity<Object>> loader) {
+        if (cache == null) {
+            loads.increment();
+            return loader.apply(null);
+        }
+        String path = uri.getRawPath();
+        Generation collection = generations.get(collectionOf(path), name -> new Generation());
+        Generation resource = generations.get(resourceOf(path), name -> new Generation());
+        Key key = new Key(uri.toString(), userId);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && (cached.getCollection() != collection || cached.getResource() != resource)) {
+            cached = null;
+        }
+        if (cached != null && ticker.read() - cached.getValidatedAt() < ttlNanos) {
+            freshHits.increment();
+            return cached.getResponse();
+        }
+        String cachedETag = cached != null ? cached.getResponse().getHeaders().getETag() : null;
+        ResponseEntity<Object> response = loader.apply(cachedETag);
+        if (cachedETag != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            notModifiedHits.increment();
+            cache.put(key, new Entry(cached.getResponse(), collection, resource, ticker.read()));
+            return cached.getResponse();
+        }
+        loads.increment();
+        boolean cacheable = response.getHeaders().getETag() != null || ttlNanos > 0;
+        if (cacheable && response.getStatusCode() == HttpStatus.OK) {
+            cache.put(key, new Entry(response, collection, resource, ticker.read()));
+        }
+        return response;
+    }
+
+    /**
+     * Перестаёт выдавать записи коллекции (/items) или ресурса (/items/1) вместе с вложенными
+     * адресами у всех пользователей.
+     */
+    public void evict(String path) {
+        if (cache == null) {
+            return;
+        }
+        generations.invalidate(path.endsWith("/") ? path.substring(0, path.length() - 1) : path);
+    }
+
+    public void evictAll() {
+        if (cache == null) {
+            return;
+        }
+        generations.invalidateAll();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Коллекция адреса: /items/1/comments -> /items.
+     */
+    static String collectionOf(String path) {
+        int end = path.indexOf('/', 1);
+        return end < 0 ? path : path.substring(0, end);
+    }
+
+    /**
+     * Отдельный ресурс адреса: /items/1/comments -> /items/1, /items -> /items.
+     */
+    static String resourceOf(String path) {
+        int collectionEnd = path.indexOf('/', 1);
+        if (collectionEnd < 0) {
+            return path;
+        }
+        int end = path.indexOf('/', collectionEnd + 1);
+        return end < 0 ? path : path.substring(0, end);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME)
+                .description("GET-запросы шлюза через кэш ответов сервера")
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Generation {
+    }
+
+    @Value
+    private static class Key {
+        String uri;
+        Long userId;
+    }
+
+    @Value
+    private static class Entry {
+        ResponseEntity<Object> response;
+        Generation collection;
+        Generation resource;
+        long validatedAt;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ответов сервера в шлюзе.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    /**
+     * Сколько запись отдаётся без обращения к серверу; после ttl запись с ETag проверяется у сервера,
+     * а без ETag загружается заново. По умолчанию 0: каждая запись с ETag проверяется условным запросом,
+     * ответы без ETag (GET /users/{id}, /requests/{id}) не кэшируются, и шлюз никогда не отдаёт устаревший ответ.
+     * Ненулевой ttl экономит обращения к серверу ценой устаревших ответов в пределах ttl: изменения через
+     * другой экземпляр шлюза или напрямую на сервере, ход времени в представлении вещи для владельца и
+     * вещь, добавленная по запросу, видны только после его истечения.
+     */
+    private Duration ttl = Duration.ZERO;
+}
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayRequestCoalescer;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerClientProperties;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -14,52 +18,72 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory,
+                      ServerClientProperties clientProperties,
+                      GatewayResponseCache responseCache,
+                      GatewayRequestCoalescer requestCoalescer) {
         super(
                 builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                clientProperties.isPassThrough(),
+                responseCache,
+                requestCoalescer
         );
     }
 
-    public ResponseEntity<Object> getItemsByUserId(Long userId, Integer pageNum, Integer pageSize) {
-        if (pageNum == null || pageSize == null) {
-            return get("", userId);
+    public ResponseEntity<Object> getItemsByUserId(Long userId, Integer pageNum, Integer pageSize, String after,
+                                                   Integer commentsLimit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (after != null) {
+            parameters.put("after", after);
+            parameters.put("size", pageSize);
+        } else {
+            parameters.put("from", pageNum);
+            parameters.put("size", pageSize);
         }
-        Map<String, Object> parameters = Map.of(
-                "from", pageNum,
-                "size", pageSize
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        parameters.put("commentsLimit", commentsLimit);
+        return get(queryOf(parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public ResponseEntity<Object> getItemById(Long itemId, Long userId, String ifNoneMatch) {
+        return cachedGet("/" + itemId, userId, ifNoneMatch);
     }
 
     public ResponseEntity<Object> searchItemsByText(Long userId,
                                                     @NotBlank String text,
                                                     @PositiveOrZero Integer from,
-                                                    @Positive Integer size) {
-        if (from == null || size == null) {
-            return get("/search?text=" + text, userId);
+                                                    @Positive Integer size,
+                                                    String after,
+                                                    @Positive Integer commentsLimit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("text", text);
+        if (after != null) {
+            parameters.put("after", after);
+            parameters.put("size", size);
+        } else {
+            parameters.put("from", from);
+            parameters.put("size", size);
         }
-        Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
-                "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        parameters.put("commentsLimit", commentsLimit);
+        return get("/search" + queryOf(parameters), userId, parameters);
     }
 
     public ResponseEntity<Object> addItem(Long userId, @Valid ItemDto itemDto) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        if (itemDto.getRequestId() != null) {
+            evictCached("/requests/" + itemDto.getRequestId());
+        }
+        return response;
     }
 
     public ResponseEntity<Object> addNewComment(Long userId, Long itemId, CommentDto commentDto) {
@@ -67,7 +91,9 @@ public class ItemClient extends BaseClient {
     }
 
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDto);
+        evictCached("/requests");
+        return response;
     }
 
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -9,11 +11,11 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
-import javax.validation.constraints.Null;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/items")
 @Slf4j
 @Validated
@@ -28,28 +30,33 @@ public class ItemController {
 
     @GetMapping
     public ResponseEntity<Object> getItems(@RequestHeader(value = USER_ID_HEADER) Long userId,
-                                           @PositiveOrZero @Null @RequestParam(name = "from", required = false) Integer pageNum,
-                                           @Positive @Null @RequestParam(name = "size", required = false) Integer pageSize) {
+                                           @PositiveOrZero @RequestParam(name = "from", required = false) Integer pageNum,
+                                           @Positive @RequestParam(name = "size", required = false) Integer pageSize,
+                                           @RequestParam(name = "after", required = false) String after,
+                                           @Positive @RequestParam(required = false) Integer commentsLimit) {
         log.info("Getting all items");
-        return itemClient.getItemsByUserId(userId, pageNum, pageSize);
+        return itemClient.getItemsByUserId(userId, pageNum, pageSize, after, commentsLimit);
     }
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(
             @RequestHeader(value = USER_ID_HEADER) Long userId,
-            @PathVariable Long itemId) {
+            @PathVariable Long itemId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Getting item id=" + itemId);
-        return itemClient.getItemById(itemId, userId);
+        return itemClient.getItemById(itemId, userId, ifNoneMatch);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItemsByText(
             @RequestHeader(value = USER_ID_HEADER) Long userId,
             @RequestParam String text,
-            @PositiveOrZero @Null @RequestParam(name = "from", required = false) Integer pageNum,
-            @Positive @Null @RequestParam(name = "size", required = false) Integer pageSize) {
+            @PositiveOrZero @RequestParam(name = "from", required = false) Integer pageNum,
+            @Positive @RequestParam(name = "size", required = false) Integer pageSize,
+            @RequestParam(name = "after", required = false) String after,
+            @Positive @RequestParam(required = false) Integer commentsLimit) {
         log.info("Searching item by text: " + text);
-        return itemClient.searchItemsByText(userId, text, pageNum, pageSize);
+        return itemClient.searchItemsByText(userId, text, pageNum, pageSize, after, commentsLimit);
     }
 
     @PostMapping
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient serverWebClient) {
+        super(serverWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Object>> getItemsByUserId(Long userId, Integer pageNum, Integer pageSize, String after,
+                                                   Integer commentsLimit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (after != null) {
+            parameters.put("after", after);
+            parameters.put("size", pageSize);
+        } else {
+            parameters.put("from", pageNum);
+            parameters.put("size", pageSize);
+        }
+        parameters.put("commentsLimit", commentsLimit);
+        return get(queryOf(parameters), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemById(Long itemId, Long userId, String ifNoneMatch) {
+        return conditionalGet("/" + itemId, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> searchItemsByText(Long userId,
+                                                    @NotBlank String text,
+                                                    @PositiveOrZero Integer from,
+                                                    @Positive Integer size,
+                                                    String after,
+                                                    @Positive Integer commentsLimit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("text", text);
+        if (after != null) {
+            parameters.put("after", after);
+            parameters.put("size", size);
+        } else {
+            parameters.put("from", from);
+            parameters.put("size", size);
+        }
+        parameters.put("commentsLimit", commentsLimit);
+        return get("/search" + queryOf(parameters), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addItem(Long userId, @Valid ItemDto itemDto) {
+        return post("", userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Object>> addNewComment(Long userId, Long itemId, CommentDto commentDto) {
+        return post("/" + itemId + "/comment", userId, null, commentDto);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, itemDto);
+    }
+
+}
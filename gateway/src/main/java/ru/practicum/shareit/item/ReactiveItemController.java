@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/items")
+@Slf4j
+@Validated
+public class ReactiveItemController {
+    private final ReactiveItemClient itemClient;
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    public ReactiveItemController(ReactiveItemClient itemClient) {
+        this.itemClient = itemClient;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getItems(@RequestHeader(value = USER_ID_HEADER) Long userId,
+                                           @PositiveOrZero @RequestParam(name = "from", required = false) Integer pageNum,
+                                           @Positive @RequestParam(name = "size", required = false) Integer pageSize,
+                                           @RequestParam(name = "after", required = false) String after,
+                                           @Positive @RequestParam(required = false) Integer commentsLimit) {
+        log.info("Getting all items");
+        return itemClient.getItemsByUserId(userId, pageNum, pageSize, after, commentsLimit);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> getItemById(
+            @RequestHeader(value = USER_ID_HEADER) Long userId,
+            @PathVariable Long itemId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Getting item id=" + itemId);
+        return itemClient.getItemById(itemId, userId, ifNoneMatch);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> searchItemsByText(
+            @RequestHeader(value = USER_ID_HEADER) Long userId,
+            @RequestParam String text,
+            @PositiveOrZero @RequestParam(name = "from", required = false) Integer pageNum,
+            @Positive @RequestParam(name = "size", required = false) Integer pageSize,
+            @RequestParam(name = "after", required = false) String after,
+            @Positive @RequestParam(required = false) Integer commentsLimit) {
+        log.info("Searching item by text: " + text);
+        return itemClient.searchItemsByText(userId, text, pageNum, pageSize, after, commentsLimit);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addItem(
+            @RequestHeader(value = USER_ID_HEADER) Long userId,
+            @RequestBody ItemDto itemDto) {
+        log.info("Creating new item of user id=" + userId);
+        return itemClient.addItem(userId, itemDto);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(value = USER_ID_HEADER) Long userId,
+                                             @PathVariable Long itemId,
+                                             @RequestBody @Valid CommentDto commentDto) {
+        log.info("Creating new comment from user id=" + userId + " about item id=" + itemId);
+        return itemClient.addNewComment(userId, itemId, commentDto);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> updateItem(
+            @RequestHeader(value = USER_ID_HEADER) Long userId,
+            @PathVariable Long itemId,
+            @RequestBody ItemDto itemDto) {
+        log.info("Updating item id=" + itemId + " from user id=" + userId);
+        return itemClient.updateItem(userId, itemId, itemDto);
+    }
+}
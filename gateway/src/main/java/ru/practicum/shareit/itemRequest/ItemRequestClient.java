@@ -1,25 +1,38 @@
 package ru.practicum.shareit.itemRequest;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayRequestCoalescer;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerClientProperties;
 import ru.practicum.shareit.itemRequest.dto.ItemRequestDto;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory serverRequestFactory,
+                             ServerClientProperties clientProperties,
+                             GatewayResponseCache responseCache,
+                             GatewayRequestCoalescer requestCoalescer) {
         super(
                 builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                clientProperties.isPassThrough(),
+                responseCache,
+                requestCoalescer
         );
     }
 
@@ -27,15 +40,16 @@ public class ItemRequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
-        if (from == null || size == null) {
-            return get("/all", userId);
+    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (after != null) {
+            parameters.put("after", after);
+            parameters.put("size", size);
+        } else if (from != null && size != null) {
+            parameters.put("from", from);
+            parameters.put("size", size);
         }
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("/all" + queryOf(parameters), userId, parameters);
     }
 
     public ResponseEntity<Object> addItemRequest(Long userId, ItemRequestDto itemRequestDto) {
@@ -43,6 +57,6 @@ public class ItemRequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+        return cachedGet("/" + requestId, userId);
     }
 }
\ No newline at end of file
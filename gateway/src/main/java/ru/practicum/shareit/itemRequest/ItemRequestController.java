@@ -1,6 +1,7 @@
 package ru.practicum.shareit.itemRequest;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,6 +13,7 @@ import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/requests")
 @Slf4j
 @Validated
@@ -39,9 +41,10 @@ public class ItemRequestController {
     @GetMapping(path = "/all")
     public ResponseEntity<Object> getAllRequests(@RequestHeader(value = USER_ID_HEADER) Long userId,
                                                  @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
-                                                 @Positive @RequestParam(name = "size", required = false) Integer pageSize) {
+                                                 @Positive @RequestParam(name = "size", required = false) Integer pageSize,
+                                                 @RequestParam(name = "after", required = false) String after) {
         log.info("Getting all requests pageable");
-        return itemRequestClient.getAllRequests(userId, from, pageSize);
+        return itemRequestClient.getAllRequests(userId, from, pageSize, after);
     }
 
     @GetMapping("/{requestId}")
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.itemRequest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.itemRequest.dto.ItemRequestDto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient serverWebClient) {
+        super(serverWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Object>> getAllRequestsOfUser(Long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllRequests(Long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (after != null) {
+            parameters.put("after", after);
+            parameters.put("size", size);
+        } else if (from != null && size != null) {
+            parameters.put("from", from);
+            parameters.put("size", size);
+        }
+        return get("/all" + queryOf(parameters), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addItemRequest(Long userId, ItemRequestDto itemRequestDto) {
+        return post("", userId, itemRequestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getRequestById(Long userId, Long requestId) {
+        return get("/" + requestId, userId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.itemRequest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.itemRequest.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/requests")
+@Slf4j
+@Validated
+public class ReactiveItemRequestController {
+    private final ReactiveItemRequestClient itemRequestClient;
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    public ReactiveItemRequestController(ReactiveItemRequestClient itemRequestClient) {
+        this.itemRequestClient = itemRequestClient;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addNewRequest(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                @Valid @RequestBody ItemRequestDto requestDto) {
+        log.info("Creating request, userId={}", userId);
+        return itemRequestClient.addItemRequest(userId, requestDto);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllRequestsOfUser(@RequestHeader(value = USER_ID_HEADER) Long userId) {
+        log.info("Getting all requests of user id=" + userId);
+        return itemRequestClient.getAllRequestsOfUser(userId);
+    }
+
+    @GetMapping(path = "/all")
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader(value = USER_ID_HEADER) Long userId,
+                                                 @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
+                                                 @Positive @RequestParam(name = "size", required = false) Integer pageSize,
+                                                 @RequestParam(name = "after", required = false) String after) {
+        log.info("Getting all requests pageable");
+        return itemRequestClient.getAllRequests(userId, from, pageSize, after);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader(value = USER_ID_HEADER) Long userId,
+                                                 @Positive @PathVariable Long requestId) {
+        log.info("Getting request id=" + requestId);
+        return itemRequestClient.getRequestById(userId, requestId);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/users")
+@Slf4j
+@Validated
+public class ReactiveUserController {
+    private final ReactiveUserClient userClient;
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    public ReactiveUserController(ReactiveUserClient userClient) {
+        this.userClient = userClient;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getUsers() {
+        log.info("Get users request");
+        return userClient.getUsers();
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
+        log.info("Get user id=" + userId);
+        return userClient.getUserById(userId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody UserDto userDto) {
+        log.info("Add new user request");
+        return userClient.addUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId, @RequestBody UserDto userDto) {
+        log.info("Patch user id=" + userId);
+        return userClient.updateUser(userId, userDto);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
+        log.info("Delete user id=" + userId);
+        return userClient.deleteUserById(userId);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseActions;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+    private static final String ITEM_1 = SERVER_URL + "/items/1";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL + "/items"));
+        server = MockRestServiceServer.bindTo(rest).build();
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(Duration.ofSeconds(30));
+        client = new BaseClient(rest, true, new GatewayResponseCache(properties, new SimpleMeterRegistry(), nanos::get),
+                null);
+    }
+
+    @Test
+    void resourceOfReturnsSingleResource() {
+        assertEquals("/items/1", BaseClient.resourceOf(URI.create(ITEM_1)));
+        assertEquals("/items/1", BaseClient.resourceOf(URI.create(ITEM_1 + "/comment")));
+        assertEquals("/bookings/7", BaseClient.resourceOf(URI.create(SERVER_URL + "/bookings/7?approved=true")));
+        assertNull(BaseClient.resourceOf(URI.create(SERVER_URL + "/items")));
+        assertNull(BaseClient.resourceOf(URI.create(SERVER_URL + "/items?from=0&size=10")));
+    }
+
+    @Test
+    void cachedEntryIsRevalidatedWithItsETag() {
+        expectGet(null).andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON).headers(eTag("1")));
+        expectGet("\"1\"").andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(eTag("1")));
+
+        client.cachedGet("/1", 1L);
+        client.cachedGet("/1", 1L);
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        ResponseEntity<Object> response = client.cachedGet("/1", 1L);
+
+        server.verify();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"id\":1}", bodyOf(response));
+    }
+
+    @Test
+    void clientETagIsAnsweredOnlyAfterServerConfirmsIt() {
+        expectGet(null).andRespond(withSuccess("{\"name\":\"old\"}", MediaType.APPLICATION_JSON).headers(eTag("1")));
+        expectGet("\"1\"").andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(eTag("1")));
+        expectGet("\"1\"").andRespond(withSuccess("{\"name\":\"new\"}", MediaType.APPLICATION_JSON)
+                .headers(eTag("2")));
+
+        client.cachedGet("/1", 1L);
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        ResponseEntity<Object> confirmed = client.cachedGet("/1", 1L, "\"1\"");
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        ResponseEntity<Object> changed = client.cachedGet("/1", 1L, "\"1\"");
+
+        server.verify();
+        assertEquals(HttpStatus.NOT_MODIFIED, confirmed.getStatusCode());
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals("{\"name\":\"new\"}", bodyOf(changed));
+    }
+
+    @Test
+    void writeToNestedPathEvictsResource() {
+        expectGet(null).andRespond(withSuccess("{\"comments\":[]}", MediaType.APPLICATION_JSON).headers(eTag("1")));
+        server.expect(requestTo(ITEM_1 + "/comment")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":5}", MediaType.APPLICATION_JSON));
+        expectGet(null).andRespond(withSuccess("{\"comments\":[5]}", MediaType.APPLICATION_JSON)
+                .headers(eTag("2")));
+
+        client.cachedGet("/1", 1L);
+        client.post("/1/comment", 2L, Map.of("text", "Отличная дрель"));
+        ResponseEntity<Object> response = client.cachedGet("/1", 1L);
+
+        server.verify();
+        assertEquals("{\"comments\":[5]}", bodyOf(response));
+    }
+
+    @Test
+    void evictCachedRemovesSideEffectResource() {
+        expectGet(null).andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        expectGet(null).andRespond(withSuccess("{\"id\":1,\"items\":[3]}", MediaType.APPLICATION_JSON));
+
+        client.cachedGet("/1", 1L);
+        ResponseEntity<Object> hit = client.cachedGet("/1", 1L);
+        client.evictCached("/items/1");
+        ResponseEntity<Object> afterEviction = client.cachedGet("/1", 1L);
+
+        server.verify();
+        assertEquals("{\"id\":1}", bodyOf(hit));
+        assertEquals("{\"id\":1,\"items\":[3]}", bodyOf(afterEviction));
+    }
+
+    private ResponseActions expectGet(String ifNoneMatch) {
+        ResponseActions actions = server.expect(requestTo(ITEM_1))
+                .andExpect(method(HttpMethod.GET));
+        return ifNoneMatch == null ? actions.andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                : actions.andExpect(header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+    }
+
+    private static HttpHeaders eTag(String version) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"" + version + "\"");
+        return headers;
+    }
+
+    private static String bodyOf(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayRequestCoalescerTest {
+    private static final URI ITEM_1 = URI.create("http://localhost:9090/items/1");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger upstream = new AtomicInteger();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private GatewayRequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = coalescer(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() throws Exception {
+        ResponseEntity<Object> leaderResponse = ResponseEntity.ok("item");
+        Future<ResponseEntity<Object>> leader = startLeader(ITEM_1, 1L, null, blockingCall(leaderResponse));
+        List<Future<ResponseEntity<Object>>> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            followers.add(executor.submit(() ->
+                    coalescer.get(ITEM_1, 1L, null, countingCall("другой ответ"))));
+        }
+        awaitCoalesced(4);
+        release.countDown();
+
+        assertSame(leaderResponse, leader.get(5, TimeUnit.SECONDS));
+        for (Future<ResponseEntity<Object>> follower : followers) {
+            assertSame(leaderResponse, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstream.get());
+        assertEquals(1.0, count("false"));
+        assertEquals(4.0, count("true"));
+    }
+
+    @Test
+    void differentUserOrIfNoneMatchIsNotMerged() throws Exception {
+        Future<ResponseEntity<Object>> leader = startLeader(ITEM_1, 1L, "\"1\"",
+                blockingCall(ResponseEntity.ok("item")));
+
+        ResponseEntity<Object> otherUser = coalescer.get(ITEM_1, 2L, "\"1\"", countingCall("user 2"));
+        ResponseEntity<Object> otherTag = coalescer.get(ITEM_1, 1L, "\"2\"", countingCall("etag 2"));
+        ResponseEntity<Object> noTag = coalescer.get(ITEM_1, 1L, null, countingCall("no etag"));
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+
+        assertEquals("user 2", otherUser.getBody());
+        assertEquals("etag 2", otherTag.getBody());
+        assertEquals("no etag", noTag.getBody());
+        assertEquals(4, upstream.get());
+        assertEquals(4.0, count("false"));
+        assertEquals(0.0, count("true"));
+    }
+
+    @Test
+    void forgetDetachesNewCallersOfResourceAndNestedPaths() throws Exception {
+        URI comments = URI.create("http://localhost:9090/items/1/comments");
+        URI otherItem = URI.create("http://localhost:9090/items/10");
+        Future<ResponseEntity<Object>> leader = startLeader(comments, 1L, null,
+                blockingCall(ResponseEntity.ok("old")));
+        CountDownLatch otherStarted = new CountDownLatch(1);
+        Future<ResponseEntity<Object>> other = executor.submit(() -> coalescer.get(otherItem, 1L, null, () -> {
+            otherStarted.countDown();
+            awaitRelease();
+            return countingCall("item 10").get();
+        }));
+        assertTrue(otherStarted.await(5, TimeUnit.SECONDS));
+
+        coalescer.forget("/items/1");
+        ResponseEntity<Object> fresh = coalescer.get(comments, 1L, null, countingCall("new"));
+        Future<ResponseEntity<Object>> joined = executor.submit(() ->
+                coalescer.get(otherItem, 1L, null, countingCall("не должен вызываться")));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertEquals("new", fresh.getBody());
+        assertEquals("old", leader.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("item 10", other.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("item 10", joined.get(5, TimeUnit.SECONDS).getBody());
+    }
+
+    @Test
+    void forgetAllDetachesNewCallers() throws Exception {
+        Future<ResponseEntity<Object>> leader = startLeader(ITEM_1, 1L, null, blockingCall(ResponseEntity.ok("old")));
+
+        coalescer.forgetAll();
+        ResponseEntity<Object> fresh = coalescer.get(ITEM_1, 1L, null, countingCall("new"));
+        release.countDown();
+
+        assertEquals("new", fresh.getBody());
+        assertEquals("old", leader.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(0.0, count("true"));
+    }
+
+    @Test
+    void followersGetLeaderException() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Сервер недоступен");
+        Future<ResponseEntity<Object>> leader = startLeader(ITEM_1, 1L, null, () -> {
+            upstream.incrementAndGet();
+            awaitRelease();
+            throw failure;
+        });
+        Future<ResponseEntity<Object>> follower = executor.submit(() ->
+                coalescer.get(ITEM_1, 1L, null, countingCall("не должен вызываться")));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(1, upstream.get());
+
+        ResponseEntity<Object> retry = coalescer.get(ITEM_1, 1L, null, countingCall("item"));
+        assertEquals("item", retry.getBody());
+    }
+
+    @Test
+    void disabledCoalescerCallsServerEveryTime() {
+        coalescer = coalescer(false);
+
+        coalescer.get(ITEM_1, 1L, null, countingCall("first"));
+        coalescer.get(ITEM_1, 1L, null, countingCall("second"));
+
+        assertEquals(2, upstream.get());
+        assertEquals(2.0, count("false"));
+        assertEquals(0.0, count("true"));
+    }
+
+    private GatewayRequestCoalescer coalescer(boolean enabled) {
+        meterRegistry.clear();
+        ServerClientProperties properties = new ServerClientProperties();
+        properties.setCoalesceGets(enabled);
+        return new GatewayRequestCoalescer(properties, meterRegistry);
+    }
+
+    private Future<ResponseEntity<Object>> startLeader(URI uri, Long userId, String ifNoneMatch,
+                                                       Supplier<ResponseEntity<Object>> call)
+            throws InterruptedException {
+        Future<ResponseEntity<Object>> leader = executor.submit(() -> coalescer.get(uri, userId, ifNoneMatch, () -> {
+            leaderStarted.countDown();
+            return call.get();
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS), "Первый запрос не начался");
+        return leader;
+    }
+
+    private Supplier<ResponseEntity<Object>> blockingCall(ResponseEntity<Object> response) {
+        return () -> {
+            upstream.incrementAndGet();
+            awaitRelease();
+            return response;
+        };
+    }
+
+    private Supplier<ResponseEntity<Object>> countingCall(Object body) {
+        return () -> {
+            upstream.incrementAndGet();
+            return ResponseEntity.ok(body);
+        };
+    }
+
+    private void awaitRelease() {
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("true") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count("true"), "Запросы не присоединились к первому");
+    }
+
+    private double count(String coalesced) {
+        return meterRegistry.get(GatewayRequestCoalescer.METRIC_NAME).tag("coalesced", coalesced).counter().count();
+    }
+}
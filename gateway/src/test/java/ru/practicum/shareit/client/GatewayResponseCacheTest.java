@@ -0,0 +1,216 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GatewayResponseCacheTest {
+    private static final URI ITEM_1 = URI.create("http://localhost:9090/items/1");
+    private static final URI ITEM_12 = URI.create("http://localhost:9090/items/12");
+    private static final URI ITEM_1_COMMENTS = URI.create("http://localhost:9090/items/1/comments");
+    private static final URI USER_1 = URI.create("http://localhost:9090/users/1");
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<String> loadedWithETags = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void entriesAreKeptPerUser() {
+        GatewayResponseCache cache = cache(Duration.ZERO);
+
+        cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("owner view", "1")));
+        cache.get(ITEM_1, 2L, cachedETag -> load(cachedETag, ok("other view", "1")));
+        ResponseEntity<Object> owner = cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, notModified("1")));
+        ResponseEntity<Object> other = cache.get(ITEM_1, 2L, cachedETag -> load(cachedETag, notModified("1")));
+
+        assertEquals("owner view", owner.getBody());
+        assertEquals("other view", other.getBody());
+        assertEquals(List.of("none", "none", "\"1\"", "\"1\""), loadedWithETags);
+    }
+
+    @Test
+    void entryWithETagIsServedWithoutServerUntilTtlExpiresThenRevalidated() {
+        GatewayResponseCache cache = cache(Duration.ofSeconds(30));
+        cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("version 1", "1")));
+
+        ResponseEntity<Object> fresh = cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("version 2", "2")));
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        ResponseEntity<Object> confirmed = cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, notModified("1")));
+        nanos.addAndGet(Duration.ofSeconds(29).toNanos());
+        ResponseEntity<Object> freshAfterConfirmation = cache.get(ITEM_1, 1L,
+                cachedETag -> load(cachedETag, ok("version 2", "2")));
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        ResponseEntity<Object> changed = cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("version 2", "2")));
+
+        assertEquals("version 1", fresh.getBody());
+        assertEquals(HttpStatus.OK, confirmed.getStatusCode());
+        assertEquals("version 1", confirmed.getBody());
+        assertEquals("version 1", freshAfterConfirmation.getBody());
+        assertEquals("version 2", changed.getBody());
+        assertEquals(List.of("none", "\"1\"", "\"1\""), loadedWithETags);
+        assertEquals(2, count("fresh"));
+        assertEquals(1, count("not_modified"));
+        assertEquals(2, count("loaded"));
+    }
+
+    @Test
+    void entryWithETagIsRevalidatedBeforeEveryHitWithZeroTtl() {
+        GatewayResponseCache cache = cache(Duration.ZERO);
+        cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("version 1", "1")));
+
+        ResponseEntity<Object> confirmed = cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, notModified("1")));
+        ResponseEntity<Object> changed = cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("version 2", "2")));
+
+        assertEquals("version 1", confirmed.getBody());
+        assertEquals("version 2", changed.getBody());
+        assertEquals(List.of("none", "\"1\"", "\"1\""), loadedWithETags);
+    }
+
+    @Test
+    void entryWithoutETagIsNotCachedWithZeroTtl() {
+        GatewayResponseCache cache = cache(Duration.ZERO);
+
+        cache.get(USER_1, null, cachedETag -> load(cachedETag, ok("user", null)));
+        cache.get(USER_1, null, cachedETag -> load(cachedETag, ok("user", null)));
+
+        assertEquals(List.of("none", "none"), loadedWithETags);
+    }
+
+    @Test
+    void entryWithoutETagIsServedUntilTtlExpires() {
+        GatewayResponseCache cache = cache(Duration.ofSeconds(30));
+        cache.get(USER_1, null, cachedETag -> load(cachedETag, ok("user", null)));
+
+        nanos.addAndGet(Duration.ofSeconds(29).toNanos());
+        ResponseEntity<Object> hit = cache.get(USER_1, null, cachedETag -> load(cachedETag, ok("renamed", null)));
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        ResponseEntity<Object> expired = cache.get(USER_1, null,
+                cachedETag -> load(cachedETag, ok("renamed", null)));
+
+        assertEquals("user", hit.getBody());
+        assertEquals("renamed", expired.getBody());
+        assertEquals(List.of("none", "none"), loadedWithETags);
+    }
+
+    @Test
+    void responseLoadedDuringEvictionIsNotCached() {
+        GatewayResponseCache cache = cache(Duration.ofSeconds(30));
+
+        ResponseEntity<Object> raced = cache.get(USER_1, null, cachedETag -> {
+            cache.evict("/users/1");
+            return load(cachedETag, ok("before write", null));
+        });
+        ResponseEntity<Object> next = cache.get(USER_1, null, cachedETag -> load(cachedETag, ok("after write", null)));
+
+        assertEquals("before write", raced.getBody());
+        assertEquals("after write", next.getBody());
+        assertEquals(List.of("none", "none"), loadedWithETags);
+    }
+
+    @Test
+    void evictRemovesResourceAndNestedPathsOfAllUsers() {
+        GatewayResponseCache cache = cache(Duration.ofSeconds(30));
+        for (URI uri : List.of(ITEM_1, ITEM_12, ITEM_1_COMMENTS)) {
+            cache.get(uri, 1L, cachedETag -> load(cachedETag, ok("cached", null)));
+            cache.get(uri, 2L, cachedETag -> load(cachedETag, ok("cached", null)));
+        }
+        loadedWithETags.clear();
+
+        cache.evict("/items/1");
+
+        assertEquals("fresh", cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+        assertEquals("fresh", cache.get(ITEM_1, 2L, cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+        assertEquals("fresh", cache.get(ITEM_1_COMMENTS, 1L,
+                cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+        assertEquals("cached", cache.get(ITEM_12, 1L, cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+        assertEquals(3, loadedWithETags.size());
+    }
+
+    @Test
+    void evictOfCollectionRemovesAllItsResources() {
+        GatewayResponseCache cache = cache(Duration.ofSeconds(30));
+        for (URI uri : List.of(ITEM_1, ITEM_12, USER_1)) {
+            cache.get(uri, 1L, cachedETag -> load(cachedETag, ok("cached", null)));
+        }
+
+        cache.evict("/items");
+
+        assertEquals("fresh", cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+        assertEquals("fresh", cache.get(ITEM_12, 1L, cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+        assertEquals("cached", cache.get(USER_1, 1L, cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+    }
+
+    @Test
+    void evictAllRemovesEveryEntry() {
+        GatewayResponseCache cache = cache(Duration.ofSeconds(30));
+        cache.get(USER_1, null, cachedETag -> load(cachedETag, ok("cached", null)));
+        cache.get(ITEM_12, 1L, cachedETag -> load(cachedETag, ok("cached", null)));
+
+        cache.evictAll();
+
+        assertEquals("fresh", cache.get(USER_1, null, cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+        assertEquals("fresh", cache.get(ITEM_12, 1L, cachedETag -> load(cachedETag, ok("fresh", null))).getBody());
+    }
+
+    @Test
+    void disabledCacheAlwaysAsksServerWithoutETag() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(false);
+        GatewayResponseCache cache = new GatewayResponseCache(properties, new SimpleMeterRegistry(), nanos::get);
+
+        cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("item", "1")));
+        ResponseEntity<Object> response = cache.get(ITEM_1, 1L, cachedETag -> load(cachedETag, ok("item", "1")));
+
+        assertEquals("item", response.getBody());
+        assertEquals(List.of("none", "none"), loadedWithETags);
+    }
+
+    @Test
+    void defaultTtlRevalidatesEveryEntry() {
+        assertEquals(Duration.ZERO, new ResponseCacheProperties().getTtl());
+    }
+
+    @Test
+    void resourceAndCollectionOfPath() {
+        assertEquals("/items", GatewayResponseCache.collectionOf("/items/1/comments"));
+        assertEquals("/items/1", GatewayResponseCache.resourceOf("/items/1/comments"));
+        assertEquals("/items/1", GatewayResponseCache.resourceOf("/items/1"));
+        assertEquals("/items", GatewayResponseCache.resourceOf("/items"));
+    }
+
+    private GatewayResponseCache cache(Duration ttl) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(ttl);
+        return new GatewayResponseCache(properties, meterRegistry, nanos::get);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(GatewayResponseCache.METRIC_NAME).tag("result", result).counter().count();
+    }
+
+    private ResponseEntity<Object> load(String cachedETag, ResponseEntity<Object> response) {
+        loadedWithETags.add(cachedETag == null ? "none" : cachedETag);
+        return response;
+    }
+
+    private static ResponseEntity<Object> ok(String body, String eTag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        return builder.body(body);
+    }
+
+    private static ResponseEntity<Object> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+}
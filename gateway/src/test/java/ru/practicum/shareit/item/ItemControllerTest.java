@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemController.class)
+class ItemControllerTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    ItemClient itemClient;
+
+    @Test
+    void cursorListingPassesSizeThrough() throws Exception {
+        when(itemClient.getItemsByUserId(any(), any(), any(), any(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        mockMvc.perform(get("/items")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("after", "MTA")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).getItemsByUserId(eq(1L), isNull(), eq(5), eq("MTA"), isNull());
+    }
+
+    @Test
+    void cursorSearchPassesSizeThrough() throws Exception {
+        when(itemClient.searchItemsByText(any(), anyString(), any(), any(), any(), any()))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mockMvc.perform(get("/items/search")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("text", "дрель")
+                        .param("after", "MTA")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).searchItemsByText(eq(1L), eq("дрель"), isNull(), eq(5), eq("MTA"), isNull());
+    }
+
+    @Test
+    void offsetListingPassesFromAndSizeThrough() throws Exception {
+        when(itemClient.getItemsByUserId(any(), any(), any(), any(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        mockMvc.perform(get("/items")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("from", "20")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).getItemsByUserId(eq(1L), eq(20), eq(10), isNull(), isNull());
+    }
+
+    @Test
+    void offsetSearchPassesFromAndSizeThrough() throws Exception {
+        when(itemClient.searchItemsByText(any(), anyString(), any(), any(), any(), any()))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mockMvc.perform(get("/items/search")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("text", "дрель")
+                        .param("from", "20")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).searchItemsByText(eq(1L), eq("дрель"), eq(20), eq(10), isNull(), isNull());
+    }
+}
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -39,4 +40,11 @@ public class Booking {
 
     @Column(name = "end_date")
     private LocalDateTime end;
+
+    /**
+     * Входит в ETag аренды и защищает смену статуса: аренду меняет только владелец вещи
+     * в updateBooking, и из двух одновременных подтверждений или отклонений проходит одно.
+     */
+    @Version
+    private Long version;
 }
\ No newline at end of file
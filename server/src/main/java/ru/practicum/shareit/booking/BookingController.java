@@ -2,9 +2,14 @@ package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.etag.ETagged;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 
@@ -27,6 +32,13 @@ public class BookingController {
         return bookingService.addBooking(userId, bookingShortDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBookings(@RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
+                                                   @RequestBody List<BookingShortDto> bookingShortDtos) {
+        log.info("Получен запрос на пакетное добавление аренд от пользователя id=" + userId);
+        return bookingService.addBookings(userId, bookingShortDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto updateBooking(@RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
                                          @PathVariable Long bookingId,
@@ -53,10 +65,39 @@ public class BookingController {
         return bookingService.getBookingsOfOwnerItems(userId, state, pageNum, pageSize);
     }
 
+    @GetMapping(params = "after")
+    public ResponseEntity<List<BookingDto>> getBookingsOfUserAfter(
+            @RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
+            @RequestParam(required = false) String state,
+            @RequestParam String after,
+            @RequestParam(name = "size", defaultValue = "10") Integer pageSize) {
+        log.info("Запрос на получение заявок на аренду пользователя id=" + userId + " после курсора");
+        List<BookingDto> bookings = bookingService.getBookingsOfUserAfter(userId, state, after, pageSize);
+        return PageCursor.withNextCursor(bookings, pageSize,
+                booking -> PageCursor.encode(booking.getStart(), booking.getId()));
+    }
+
+    @GetMapping(path = "/owner", params = "after")
+    public ResponseEntity<List<BookingDto>> getBookingsOfOwnersItemsAfter(
+            @RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
+            @RequestParam(required = false) String state,
+            @RequestParam String after,
+            @RequestParam(name = "size", defaultValue = "10") Integer pageSize) {
+        log.info("Запрос на получение заявок на аренду всех вещей пользователя id=" + userId + " после курсора");
+        List<BookingDto> bookings = bookingService.getBookingsOfOwnerItemsAfter(userId, state, after, pageSize);
+        return PageCursor.withNextCursor(bookings, pageSize,
+                booking -> PageCursor.encode(booking.getStart(), booking.getId()));
+    }
+
     @GetMapping("/{bookingId}")
-    public BookingDto getBooking(@RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
-                                      @PathVariable Long bookingId) {
+    public ResponseEntity<BookingDto> getBooking(@RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
+                                                 @PathVariable Long bookingId,
+                                                 WebRequest request) {
         log.info("Запрос на получение информации об аренде id=" + bookingId);
-        return bookingService.getBooking(userId, bookingId);
+        ETagged<BookingDto> booking = bookingService.getBooking(userId, bookingId, request::checkNotModified);
+        if (booking.isNotModified()) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(booking.getETag()).body(booking.getBody());
     }
 }
@@ -1,134 +1,43 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 
 public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    @Query("select b from Booking b where b.booker.id = ?1 order by b.start desc")
-    List<Booking> findAllByUserId(Long userId);
-
-    @Query("select b from Booking b where b.booker.id = ?1 order by b.start desc")
-    List<Booking> findAllByUserId(Long userId, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and (b.start < current_timestamp and b.end > current_timestamp) " +
-            "order by b.end desc")
-    List<Booking> findAllCurrentByUserId(Long userId);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and (b.start < current_timestamp and b.end > current_timestamp) " +
-            "order by b.end desc")
-    List<Booking> findAllCurrentByUserId(Long userId, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and (b.end < current_timestamp) " +
-            "order by b.start desc")
-    List<Booking> findAllPastByUserId(Long userId);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and (b.end < current_timestamp) " +
-            "order by b.start desc")
-    List<Booking> findAllPastByUserId(Long userId, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.start > current_timestamp " +
-            "order by b.start desc")
-    List<Booking> findAllFutureByUserId(Long userId);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.start > current_timestamp " +
-            "order by b.start desc")
-    List<Booking> findAllFutureByUserId(Long userId, Pageable pageable);
-
-    @Query("select b from Booking b where b.booker.id = ?1 and b.status = 'WAITING' order by b.end desc")
-    List<Booking> findAllWaitingByUserId(Long userId);
-
-    @Query("select b from Booking b where b.booker.id = ?1 and b.status = 'WAITING' order by b.end desc")
-    List<Booking> findAllWaitingByUserId(Long userId, Pageable pageable);
-
-    @Query("select b from Booking b where b.booker.id = ?1 and b.status = 'REJECTED' order by b.end desc")
-    List<Booking> findAllRejectedByUserId(Long userId);
-
-    @Query("select b from Booking b where b.booker.id = ?1 and b.status = 'REJECTED' order by b.end desc")
-    List<Booking> findAllRejectedByUserId(Long userId, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.item.id in (?1) " +
-            "and b.status = ?2 " +
-            "order by b.start desc")
-    List<Booking> findBookingsForItemsWithState(List<Long> itemIds, String state);
-
-    @Query("select b from Booking b where b.item.id in (?1) order by b.end desc")
-    List<Booking> findAllBookingsForItems(List<Long> itemIds);
-
-    @Query("select b from Booking b where b.item.id in (?1) order by b.end desc")
-    List<Booking> findAllBookingsForItems(List<Long> itemIds, Pageable pageable);
-
-    @Query("select b from Booking b where b.item.id in (?1)" +
-            "and (b.start < current_timestamp and b.end > current_timestamp) " +
-            "order by b.start desc")
-    List<Booking> findCurrentBookingsForItems(List<Long> itemIds);
-
-    @Query("select b from Booking b where b.item.id in (?1)" +
-            "and (b.start < current_timestamp and b.end > current_timestamp) " +
-            "order by b.start desc")
-    List<Booking> findCurrentBookingsForItems(List<Long> itemIds, Pageable pageable);
-
-    @Query("select b from Booking b where b.item.id in (?1)" +
-            "and (b.start < current_timestamp and b.end < current_timestamp) " +
-            "order by b.start desc")
-    List<Booking> findPastBookingsForItems(List<Long> itemIds);
-
-    @Query("select b from Booking b where b.item.id in (?1)" +
-            "and (b.start < current_timestamp and b.end < current_timestamp) " +
-            "order by b.start desc")
-    List<Booking> findPastBookingsForItems(List<Long> itemIds, Pageable pageable);
-
-    @Query("select b from Booking b where b.item.id in (?1)" +
-            "and (b.start > current_timestamp and b.end > current_timestamp) " +
-            "order by b.start desc")
-    List<Booking> findFutureBookingsForItems(List<Long> itemIds);
-
-    @Query("select b from Booking b where b.item.id in (?1)" +
-            "and (b.start > current_timestamp and b.end > current_timestamp) " +
-            "order by b.start desc")
-    List<Booking> findFutureBookingsForItems(List<Long> itemIds, Pageable pageable);
-
-    @Query("select b from Booking b where b.item.id in (?1) and b.status = 'WAITING' order by b.end desc")
-    List<Booking> findWaititngBookingsForItems(List<Long> itemIds);
-
-    @Query("select b from Booking b where b.item.id in (?1) and b.status = 'WAITING' order by b.end desc")
-    List<Booking> findWaititngBookingsForItems(List<Long> itemIds, Pageable pageable);
-
-    @Query("select b from Booking b where b.item.id in (?1) and b.status = 'REJECTED' order by b.end desc")
-    List<Booking> findRejectedBookingsForItems(List<Long> itemIds);
-
-    @Query("select b from Booking b where b.item.id in (?1) and b.status = 'REJECTED' order by b.end desc")
-    List<Booking> findRejectedBookingsForItems(List<Long> itemIds, Pageable pageable);
-
-    @Query(value = "select * from bookings b " +
-            "where b.item_id = ?1 and start_date > current_timestamp " +
+    /**
+     * Брал ли пользователь вещь в аренду: покрывается индексом ix_bookings_booker_item_start
+     * и останавливается на первой найденной аренде.
+     */
+    @Query(value = "select exists(select 1 from bookings b " +
+            "where b.booker_id = ?1 and b.item_id = ?2 and b.start_date < ?3)", nativeQuery = true)
+    boolean existsStartedBookingOfItem(Long bookerId, Long itemId, LocalDateTime before);
+
+    /**
+     * Пересекается ли период с неотклонённой арендой вещи: останавливается на первой найденной.
+     */
+    @Query(value = "select exists(select 1 from bookings b " +
+            "where b.item_id = ?1 " +
             "and b.status <> 'REJECTED' " +
-            "order by b.start_date asc " +
-            "limit 1", nativeQuery = true)
-    Optional<Booking> findNextBookingForItem(Long itemId);
+            "and b.start_date < ?3 and b.end_date > ?2)", nativeQuery = true)
+    boolean existsOverlappingBooking(Long itemId, LocalDateTime start, LocalDateTime end);
 
-    @Query(value = "select * from bookings b " +
-            "where b.item_id = ?1 and start_date < current_timestamp " +
+    @Query("select b.item.id as itemId, b.start as start, b.end as end from Booking b " +
+            "where b.item.id in ?1 " +
             "and b.status <> 'REJECTED' " +
-            "order by b.start_date desc " +
-            "limit 1", nativeQuery = true)
-    Optional<Booking> findLastBookingForItem(Long itemId);
+            "and b.start < ?3 and b.end > ?2")
+    List<BookingPeriod> findOverlappingPeriodsOfItems(Collection<Long> itemIds, LocalDateTime start,
+                                                      LocalDateTime end);
+
+    @Query(value = "select exists(select 1 from bookings b " +
+            "where b.item_id = ?1 " +
+            "and b.id <> ?2 " +
+            "and b.status = 'APPROVED' " +
+            "and b.start_date < ?4 and b.end_date > ?3)", nativeQuery = true)
+    boolean existsApprovedOverlappingBooking(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end);
 }
@@ -1,4 +1,24 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.pagination.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface BookingRepositoryCustom {
+
+    List<Booking> findAllByBooker(Long bookerId, BookingState state, Pageable pageable);
+
+    List<Booking> findAllByItemOwner(Long ownerId, BookingState state, Pageable pageable);
+
+    List<Booking> findAllByBookerAfter(Long bookerId, BookingState state, PageCursor after, int pageSize);
+
+    List<Booking> findAllByItemOwnerAfter(Long ownerId, BookingState state, PageCursor after, int pageSize);
+
+    /**
+     * Последняя начавшаяся и ближайшая будущая аренды каждой вещи вместе с вещью и арендатором.
+     */
+    List<Booking> findLastAndNextBookingsForItems(List<Long> itemIds, LocalDateTime now);
 }
@@ -1,12 +1,190 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.query.NativeQuery;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.exception.WrongDataException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    private static final String USER_ID_PARAMETER = "userId";
+    private static final String NOW_PARAMETER = "now";
+    private static final String STATUS_PARAMETER = "status";
+    private static final String AFTER_START_PARAMETER = "afterStart";
+    private static final String AFTER_ID_PARAMETER = "afterId";
+    private static final String ITEM_IDS_PARAMETER = "itemIds";
+    /**
+     * Окно row_number выбирает по одной аренде на вещь, вещь и арендатор читаются тем же запросом:
+     * иначе жадные связи Booking догружались бы отдельным SELECT на каждого арендатора.
+     * Из аренд с одинаковым началом выбирается последняя или первая по id, чтобы ответ и ETag не менялись
+     * от запроса к запросу.
+     */
+    private static final String LAST_AND_NEXT_BOOKINGS_SQL = "select {b.*}, {i.*}, {u.*} from bookings b " +
+            "join items i on i.id = b.item_id " +
+            "join users u on u.id = b.booker_id " +
+            "where b.id in (" +
+            "select l.id from (" +
+            "select lb.id, row_number() over (partition by lb.item_id order by lb.start_date desc, lb.id desc) as rn " +
+            "from bookings lb " +
+            "where lb.item_id in (:itemIds) and lb.start_date < :now and lb.status <> 'REJECTED') l " +
+            "where l.rn = 1 " +
+            "union all " +
+            "select n.id from (" +
+            "select nb.id, row_number() over (partition by nb.item_id order by nb.start_date asc, nb.id asc) as rn " +
+            "from bookings nb " +
+            "where nb.item_id in (:itemIds) and nb.start_date > :now and nb.status <> 'REJECTED') n " +
+            "where n.rn = 1)";
 
     private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
 
-    public BookingRepositoryImpl(@Lazy BookingRepository bookingRepository) {
+    public BookingRepositoryImpl(@Lazy BookingRepository bookingRepository, EntityManager entityManager) {
         this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Booking> findAllByBooker(Long bookerId, BookingState state, Pageable pageable) {
+        return findAll(bookerId, false, state, pageable);
+    }
+
+    @Override
+    public List<Booking> findAllByItemOwner(Long ownerId, BookingState state, Pageable pageable) {
+        return findAll(ownerId, true, state, pageable);
+    }
+
+    @Override
+    public List<Booking> findAllByBookerAfter(Long bookerId, BookingState state, PageCursor after, int pageSize) {
+        return findAllAfter(bookerId, false, state, after, pageSize);
+    }
+
+    @Override
+    public List<Booking> findAllByItemOwnerAfter(Long ownerId, BookingState state, PageCursor after, int pageSize) {
+        return findAllAfter(ownerId, true, state, after, pageSize);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Booking> findLastAndNextBookingsForItems(List<Long> itemIds, LocalDateTime now) {
+        List<Object[]> rows = entityManager.createNativeQuery(LAST_AND_NEXT_BOOKINGS_SQL)
+                .unwrap(NativeQuery.class)
+                .addEntity("b", Booking.class)
+                .addJoin("i", "b.item")
+                .addJoin("u", "b.booker")
+                .setParameter(ITEM_IDS_PARAMETER, itemIds)
+                .setParameter(NOW_PARAMETER, now)
+                .getResultList();
+        return rows.stream()
+                .map(row -> (Booking) row[0])
+                .collect(Collectors.toList());
+    }
+
+    private List<Booking> findAll(Long userId, boolean forOwner, BookingState state, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        List<Predicate> predicates = basePredicates(cb, booking, forOwner, state);
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get(state.getSortProperty(forOwner))));
+        TypedQuery<Booking> typedQuery = bindParameters(entityManager.createQuery(query), userId, state);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private List<Booking> findAllAfter(Long userId, boolean forOwner, BookingState state, PageCursor after,
+                                       int pageSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        List<Predicate> predicates = basePredicates(cb, booking, forOwner, state);
+        if (!after.isFirstPage()) {
+            if (after.getStart() == null) {
+                throw new WrongDataException("Ошибка: неверно указан курсор страницы");
+            }
+            ParameterExpression<LocalDateTime> afterStart = cb.parameter(LocalDateTime.class, AFTER_START_PARAMETER);
+            ParameterExpression<Long> afterId = cb.parameter(Long.class, AFTER_ID_PARAMETER);
+            predicates.add(cb.or(
+                    cb.lessThan(booking.get("start"), afterStart),
+                    cb.and(cb.equal(booking.get("start"), afterStart), cb.lessThan(booking.get("id"), afterId))));
+        }
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+        TypedQuery<Booking> typedQuery = bindParameters(entityManager.createQuery(query), userId, state);
+        if (!after.isFirstPage()) {
+            typedQuery.setParameter(AFTER_START_PARAMETER, after.getStart())
+                    .setParameter(AFTER_ID_PARAMETER, after.getId());
+        }
+        return typedQuery.setMaxResults(pageSize).getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Predicate> basePredicates(CriteriaBuilder cb, Root<Booking> booking, boolean forOwner,
+                                           BookingState state) {
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        Join<Booking, User> booker = (Join<Booking, User>) booking.<Booking, User>fetch("booker");
+        List<Predicate> predicates = new ArrayList<>();
+        ParameterExpression<Long> userId = cb.parameter(Long.class, USER_ID_PARAMETER);
+        if (forOwner) {
+            predicates.add(cb.equal(item.get("ownerId"), userId));
+        } else {
+            predicates.add(cb.equal(booker.get("id"), userId));
+        }
+        ParameterExpression<LocalDateTime> now = cb.parameter(LocalDateTime.class, NOW_PARAMETER);
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(booking.get("start"), now));
+                predicates.add(cb.greaterThan(booking.get("end"), now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(booking.get("end"), now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(booking.get("start"), now));
+                break;
+            case WAITING:
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), cb.parameter(BookingStatus.class, STATUS_PARAMETER)));
+                break;
+            default:
+                break;
+        }
+        return predicates;
+    }
+
+    private TypedQuery<Booking> bindParameters(TypedQuery<Booking> query, Long userId, BookingState state) {
+        query.setParameter(USER_ID_PARAMETER, userId);
+        switch (state) {
+            case CURRENT:
+            case PAST:
+            case FUTURE:
+                query.setParameter(NOW_PARAMETER, LocalDateTime.now());
+                break;
+            case WAITING:
+                query.setParameter(STATUS_PARAMETER, BookingStatus.WAITING);
+                break;
+            case REJECTED:
+                query.setParameter(STATUS_PARAMETER, BookingStatus.REJECTED);
+                break;
+            default:
+                break;
+        }
+        return query;
     }
 }
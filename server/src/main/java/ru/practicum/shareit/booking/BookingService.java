@@ -1,55 +1,142 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoMapper;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.etag.ETagged;
+import ru.practicum.shareit.etag.ETags;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.WrongDataException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class BookingService {
+    static final int MAX_BATCH_SIZE = 500;
+    static final String APPROVED_OVERLAP_CONSTRAINT = "ex_bookings_approved_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
     private final BookingDtoMapper bookingDtoMapper;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
 
+    /**
+     * Ограничение ex_bookings_approved_overlap защищает только подтверждённые аренды, поэтому
+     * строка вещи блокируется до конца транзакции: одновременные заявки на одну вещь проверяются
+     * на пересечение по очереди и не создают пересекающихся ожидающих аренд.
+     */
+    @Transactional
     public BookingDto addBooking(Long userId, BookingShortDto bookingShortDto) {
         validateBookingDto(bookingShortDto);
         User booker = userRepository.findById(userId).get();
-        Item item = itemRepository.findById(bookingShortDto.getItemId()).orElseThrow(
-                () -> new NotFoundException("Вешь с id=" + bookingShortDto.getItemId() + " не найдена!")
-        );
-        if (!item.isAvailable()) {
-            throw new WrongDataException("Вешь с id=" + bookingShortDto.getItemId() + " недоступна для аренды!");
-        }
-        Booking booking = bookingDtoMapper.toBooking(bookingShortDto, item, booker);
-        if (userId.equals(booking.getItem().getOwnerId())) {
-            throw new NotFoundException("Забронировать собственную вещь нельзя! ");
-        }
-        validateDatesOfBooking(booking);
-        if (booking.getStatus() == null) {
-            booking.setStatus(BookingStatus.WAITING);
+        Item item = itemRepository.findByIdForUpdate(bookingShortDto.getItemId()).orElse(null);
+        Booking booking = toNewBooking(userId, bookingShortDto, item, booker);
+        if (bookingRepository.existsOverlappingBooking(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Вещь id=" + item.getId() + " уже забронирована на указанный период");
         }
         bookingRepository.save(booking);
+        itemRepository.incrementVersion(item.getId());
         return bookingDtoMapper.toDto(booking);
     }
 
+    /**
+     * Пакетное создание аренд: заявки проверяются по отдельности, и ошибка одной из них
+     * не мешает создать остальные. Пользователь, вещи и пересекающиеся аренды загружаются
+     * одним запросом на весь пакет, новые аренды вставляются JDBC-пакетами Hibernate.
+     * Вещи пакета блокируются так же, как в addBooking. Пустой элемент пакета - ошибка только этой заявки.
+     */
+    @Transactional
+    public List<BookingBatchResultDto> addBookings(Long userId, List<BookingShortDto> bookingShortDtos) {
+        if (bookingShortDtos == null || bookingShortDtos.isEmpty() || bookingShortDtos.size() > MAX_BATCH_SIZE) {
+            throw new WrongDataException("Ошибка: в пакете должно быть от 1 до " + MAX_BATCH_SIZE + " аренд");
+        }
+        User booker = userRepository.findById(userId).orElseThrow(
+                () -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+        Set<Long> itemIds = bookingShortDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingShortDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<Item> items = itemIds.isEmpty() ? List.of() : itemRepository.findAllByIdForUpdate(itemIds);
+        Map<Long, Item> itemsById = items.stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingShortDtos.size()];
+        Map<Integer, Booking> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < bookingShortDtos.size(); i++) {
+            BookingShortDto bookingShortDto = bookingShortDtos.get(i);
+            try {
+                validateBookingDto(bookingShortDto);
+                Booking booking = toNewBooking(userId, bookingShortDto, itemsById.get(bookingShortDto.getItemId()),
+                        booker);
+                candidates.put(i, booking);
+            } catch (WrongDataException | NotFoundException e) {
+                results[i] = new BookingBatchResultDto(i, null, e.getMessage());
+            } catch (DateTimeParseException e) {
+                results[i] = new BookingBatchResultDto(i, null, "Неверно указаны даты начала и окончания аренды");
+            }
+        }
+
+        Map<Long, List<BookingPeriod>> storedPeriods = findStoredPeriods(candidates.values());
+        Map<Long, List<Booking>> acceptedByItem = new HashMap<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (Map.Entry<Integer, Booking> candidate : candidates.entrySet()) {
+            Booking booking = candidate.getValue();
+            Long itemId = booking.getItem().getId();
+            boolean overlapsStored = storedPeriods.getOrDefault(itemId, List.of()).stream()
+                    .anyMatch(period -> overlaps(period.getStart(), period.getEnd(), booking));
+            boolean overlapsBatch = acceptedByItem.getOrDefault(itemId, List.of()).stream()
+                    .anyMatch(other -> overlaps(other.getStart(), other.getEnd(), booking));
+            if (overlapsStored || overlapsBatch) {
+                results[candidate.getKey()] = new BookingBatchResultDto(candidate.getKey(), null,
+                        "Вещь id=" + itemId + " уже забронирована на указанный период");
+            } else {
+                acceptedByItem.computeIfAbsent(itemId, id -> new ArrayList<>()).add(booking);
+                accepted.add(booking);
+            }
+        }
+
+        bookingRepository.saveAll(accepted);
+        if (!acceptedByItem.isEmpty()) {
+            itemRepository.incrementVersionOfItems(acceptedByItem.keySet());
+        }
+        for (Map.Entry<Integer, Booking> candidate : candidates.entrySet()) {
+            if (results[candidate.getKey()] == null) {
+                results[candidate.getKey()] = new BookingBatchResultDto(candidate.getKey(),
+                        bookingDtoMapper.toDto(candidate.getValue()), null);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
     public BookingDto updateBooking(Long bookingId, Long userId, Boolean approved) {
-        findUserByIdIfExists(userId);
+        userExistenceChecker.checkExists(userId);
         Booking booking = findBookingById(bookingId);
         Item item = booking.getItem();
         if (!userId.equals(item.getOwnerId())) {
@@ -57,61 +144,139 @@ public class BookingService {
                                          + ". Подтвердить или отклонить аренду нельзя!");
         }
         setBookingStatus(userId, booking, approved);
-        bookingRepository.save(booking);
+        try {
+            bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isApprovedOverlapViolation(e)) {
+                throw new ConflictException("Вещь id=" + item.getId() + " уже сдана в аренду на указанный период");
+            }
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Статус аренды id=" + bookingId + " уже изменён другим запросом");
+        }
+        itemRepository.incrementVersion(item.getId());
         return bookingDtoMapper.toDto(booking);
     }
 
     public BookingDto getBooking(Long userId, Long bookingId) {
-        findUserByIdIfExists(userId);
-        Booking booking = findBookingById(bookingId);
-        if (!booking.getItem().getOwnerId().equals(userId) && !booking.getBooker().getId().equals(userId)) {
-            throw new NotFoundException("Пользователь id=" + userId + " не является арендатором или владельцем вещи");
+        return bookingDtoMapper.toDto(findBookingOfUser(userId, bookingId));
+    }
+
+    /**
+     * Аренда с ETag из версий аренды и вещи и данных арендатора, которые входят в ответ;
+     * аренда загружается один раз, и DTO строится, только если notModified не принял ETag.
+     */
+    public ETagged<BookingDto> getBooking(Long userId, Long bookingId, Predicate<String> notModified) {
+        Booking booking = findBookingOfUser(userId, bookingId);
+        User booker = booking.getBooker();
+        String eTag = ETags.of(booking.getId(), booking.getVersion(), booking.getItem().getVersion(),
+                booker.getName(), booker.getEmail());
+        if (notModified.test(eTag)) {
+            return new ETagged<>(eTag, null);
         }
-        return bookingDtoMapper.toDto(booking);
+        return new ETagged<>(eTag, bookingDtoMapper.toDto(booking));
     }
 
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsOfUser(Long userId, String state, Integer from, Integer pageSize) {
-        if (state == null) {
-            state = "ALL";
-        }
-        findUserByIdIfExists(userId);
-        if (from == null || pageSize == null) {
-            List<Booking> bookings = findBookigsWithState(userId, state);
-            return bookings.stream()
-                    .map(bookingDtoMapper::toDto)
-                    .collect(Collectors.toList());
-        }
-        validatePagesRequest(from, pageSize);
-        List<Booking> bookings = findBookigsWithStatePageable(userId, state, PageRequest.of(from / pageSize, pageSize));
-        return bookings.stream()
+        BookingState bookingState = BookingState.from(state);
+        userExistenceChecker.checkExists(userId);
+        Pageable page = Pageable.unpaged();
+        if (from != null && pageSize != null) {
+            validatePagesRequest(from, pageSize);
+            page = PageRequest.of(from / pageSize, pageSize);
+        }
+        return bookingRepository.findAllByBooker(userId, bookingState, page).stream()
                 .map(bookingDtoMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsOfOwnerItems(Long ownerId, String state, Integer pageNum, Integer pageSize) {
-        findUserByIdIfExists(ownerId);
-        List<Long> itemIds = itemRepository.findAllByOwnerId(ownerId).stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-        if (itemIds.isEmpty()) {
-            throw new NotFoundException("У пользователя id=" + ownerId + " не найдено вещей");
-        }
-        List<Booking> bookings;
-        if (pageNum == null || pageSize == null) {
-            bookings = findBookingsOfItemsWithState(itemIds, state);
-        } else {
+        BookingState bookingState = BookingState.from(state);
+        userExistenceChecker.checkExists(ownerId);
+        Pageable page = Pageable.unpaged();
+        if (pageNum != null && pageSize != null) {
             validatePagesRequest(pageNum, pageSize);
-            bookings = findBookingsOfItemsWithState(itemIds, state, PageRequest.of(pageNum, pageSize));
+            page = PageRequest.of(pageNum, pageSize);
+        }
+        List<Booking> bookings = bookingRepository.findAllByItemOwner(ownerId, bookingState, page);
+        if (bookings.isEmpty()) {
+            checkOwnerHasItems(ownerId);
         }
+        return bookings.stream()
+                .map(bookingDtoMapper::toDto)
+                .collect(Collectors.toList());
+    }
 
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsOfUserAfter(Long userId, String state, String after, Integer pageSize) {
+        BookingState bookingState = BookingState.from(state);
+        userExistenceChecker.checkExists(userId);
+        PageCursor.validatePageSize(pageSize);
+        return bookingRepository.findAllByBookerAfter(userId, bookingState, PageCursor.decode(after), pageSize)
+                .stream()
+                .map(bookingDtoMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsOfOwnerItemsAfter(Long ownerId, String state, String after, Integer pageSize) {
+        BookingState bookingState = BookingState.from(state);
+        userExistenceChecker.checkExists(ownerId);
+        PageCursor.validatePageSize(pageSize);
+        List<Booking> bookings = bookingRepository.findAllByItemOwnerAfter(ownerId, bookingState,
+                PageCursor.decode(after), pageSize);
+        if (bookings.isEmpty()) {
+            checkOwnerHasItems(ownerId);
+        }
         return bookings.stream()
                 .map(bookingDtoMapper::toDto)
                 .collect(Collectors.toList());
     }
 
-    private User findUserByIdIfExists(Long userId) {
-        return userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+    private Booking toNewBooking(Long userId, BookingShortDto bookingShortDto, Item item, User booker) {
+        if (item == null) {
+            throw new NotFoundException("Вешь с id=" + bookingShortDto.getItemId() + " не найдена!");
+        }
+        if (!item.isAvailable()) {
+            throw new WrongDataException("Вешь с id=" + bookingShortDto.getItemId() + " недоступна для аренды!");
+        }
+        Booking booking = bookingDtoMapper.toBooking(bookingShortDto, item, booker);
+        if (userId.equals(booking.getItem().getOwnerId())) {
+            throw new NotFoundException("Забронировать собственную вещь нельзя! ");
+        }
+        validateDatesOfBooking(booking);
+        if (booking.getStatus() == null) {
+            booking.setStatus(BookingStatus.WAITING);
+        }
+        return booking;
+    }
+
+    private Map<Long, List<BookingPeriod>> findStoredPeriods(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> itemIds = new HashSet<>();
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (Booking booking : bookings) {
+            itemIds.add(booking.getItem().getId());
+            start = start == null || booking.getStart().isBefore(start) ? booking.getStart() : start;
+            end = end == null || booking.getEnd().isAfter(end) ? booking.getEnd() : end;
+        }
+        return bookingRepository.findOverlappingPeriodsOfItems(itemIds, start, end).stream()
+                .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+    }
+
+    private static boolean overlaps(LocalDateTime start, LocalDateTime end, Booking booking) {
+        return start.isBefore(booking.getEnd()) && end.isAfter(booking.getStart());
+    }
+
+    private void checkOwnerHasItems(Long ownerId) {
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            throw new NotFoundException("У пользователя id=" + ownerId + " не найдено вещей");
+        }
     }
 
     private void setBookingStatus(Long userId, Booking booking, Boolean approved) {
@@ -119,18 +284,52 @@ public class BookingService {
             throw new WrongDataException("Статус аренды уже подтвержден");
         }
         if (approved) {
+            if (bookingRepository.existsApprovedOverlappingBooking(booking.getItem().getId(), booking.getId(),
+                    booking.getStart(), booking.getEnd())) {
+                throw new ConflictException("Вещь id=" + booking.getItem().getId()
+                        + " уже сдана в аренду на указанный период");
+            }
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
     }
 
+    /**
+     * Одновременные подтверждения пересекающихся аренд проходят проверку в setBookingStatus,
+     * и второе отклоняет ограничение ex_bookings_approved_overlap (SQLSTATE 23P01, exclusion_violation).
+     */
+    private static boolean isApprovedOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if (EXCLUSION_VIOLATION.equals(sqlException.getSQLState())
+                        || String.valueOf(sqlException.getMessage()).contains(APPROVED_OVERLAP_CONSTRAINT)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Booking findBookingOfUser(Long userId, Long bookingId) {
+        userExistenceChecker.checkExists(userId);
+        Booking booking = findBookingById(bookingId);
+        if (!booking.getItem().getOwnerId().equals(userId) && !booking.getBooker().getId().equals(userId)) {
+            throw new NotFoundException("Пользователь id=" + userId + " не является арендатором или владельцем вещи");
+        }
+        return booking;
+    }
+
     private Booking findBookingById(Long bookingId) {
         return bookingRepository.findById(bookingId).orElseThrow(
                 () -> new NotFoundException("Бронирование id=" + bookingId + "не найдено!"));
     }
 
     private void validateBookingDto(BookingShortDto bookingShortDto) {
+        if (bookingShortDto == null) {
+            throw new WrongDataException("Ошибка валидации бронирования: пустая заявка на аренду");
+        }
         StringBuilder message = new StringBuilder();
         if (bookingShortDto.getItemId() == null) {
             message.append("Не указан id вещи! ");
@@ -164,87 +363,4 @@ public class BookingService {
             throw new WrongDataException("Ошибка: неверно указан начальный индекс или размер страницы");
         }
     }
-
-    private List<Booking> findBookigsWithState(Long userId, String state) {
-        switch (state.toUpperCase()) {
-            case "ALL":
-                return bookingRepository.findAllByUserId(userId);
-            case "CURRENT":
-                return bookingRepository.findAllCurrentByUserId(userId);
-            case "PAST":
-                return bookingRepository.findAllPastByUserId(userId);
-            case "FUTURE":
-                return bookingRepository.findAllFutureByUserId(userId);
-            case "WAITING":
-                return bookingRepository.findAllWaitingByUserId(userId);
-            case "REJECTED":
-                return bookingRepository.findAllRejectedByUserId(userId);
-            default:
-                throw new WrongDataException("Unknown state: UNSUPPORTED_STATUS");
-        }
-    }
-
-    private List<Booking> findBookigsWithStatePageable(Long userId, String state, Pageable page) {
-        switch (state.toUpperCase()) {
-            case "ALL":
-                return bookingRepository.findAllByUserId(userId, page);
-            case "CURRENT":
-                return bookingRepository.findAllCurrentByUserId(userId, page);
-            case "PAST":
-                return bookingRepository.findAllPastByUserId(userId, page);
-            case "FUTURE":
-                return bookingRepository.findAllFutureByUserId(userId, page);
-            case "WAITING":
-                return bookingRepository.findAllWaitingByUserId(userId, page);
-            case "REJECTED":
-                return bookingRepository.findAllRejectedByUserId(userId, page);
-            default:
-                throw new WrongDataException("Unknown state: UNSUPPORTED_STATUS");
-        }
-    }
-
-    private List<Booking> findBookingsOfItemsWithState(List<Long> itemIds, String state) {
-        if (state == null) {
-            state = "ALL";
-        }
-        switch (state.toUpperCase()) {
-            case "ALL":
-                return bookingRepository.findAllBookingsForItems(itemIds);
-            case "CURRENT":
-                return bookingRepository.findCurrentBookingsForItems(itemIds);
-            case "PAST":
-                return bookingRepository.findPastBookingsForItems(itemIds);
-            case "FUTURE":
-                return bookingRepository.findFutureBookingsForItems(itemIds);
-            case "WAITING":
-                return bookingRepository.findWaititngBookingsForItems(itemIds);
-            case "REJECTED":
-                return bookingRepository.findRejectedBookingsForItems(itemIds);
-            default:
-                throw new WrongDataException("Unknown state: UNSUPPORTED_STATUS");
-        }
-    }
-
-    private List<Booking> findBookingsOfItemsWithState(List<Long> itemIds, String state, Pageable page) {
-        if (state == null) {
-            state = "ALL";
-        }
-        switch (state.toUpperCase()) {
-            case "ALL":
-                return bookingRepository.findAllBookingsForItems(itemIds, page);
-            case "CURRENT":
-                return bookingRepository.findCurrentBookingsForItems(itemIds, page);
-            case "PAST":
-                return bookingRepository.findPastBookingsForItems(itemIds, page);
-            case "FUTURE":
-                return bookingRepository.findFutureBookingsForItems(itemIds, page);
-            case "WAITING":
-                return bookingRepository.findWaititngBookingsForItems(itemIds, page);
-            case "REJECTED":
-                return bookingRepository.findRejectedBookingsForItems(itemIds, page);
-            default:
-                throw new WrongDataException("Unknown state: UNSUPPORTED_STATUS");
-        }
-
-    }
 }
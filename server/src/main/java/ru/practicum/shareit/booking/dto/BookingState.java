@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.exception.WrongDataException;
+
+public enum BookingState {
+    ALL("start", "end"),
+    CURRENT("end", "start"),
+    PAST("start", "start"),
+    FUTURE("start", "start"),
+    WAITING("end", "end"),
+    REJECTED("end", "end");
+
+    private final String bookerSortProperty;
+    private final String ownerSortProperty;
+
+    BookingState(String bookerSortProperty, String ownerSortProperty) {
+        this.bookerSortProperty = bookerSortProperty;
+        this.ownerSortProperty = ownerSortProperty;
+    }
+
+    public String getSortProperty(boolean forOwner) {
+        return forOwner ? ownerSortProperty : bookerSortProperty;
+    }
+
+    public static BookingState from(String state) {
+        if (state == null) {
+            return ALL;
+        }
+        for (BookingState value : values()) {
+            if (value.name().equalsIgnoreCase(state)) {
+                return value;
+            }
+        }
+        throw new WrongDataException("Unknown state: UNSUPPORTED_STATUS");
+    }
+}
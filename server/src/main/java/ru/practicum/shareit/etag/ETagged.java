@@ -0,0 +1,16 @@
+package ru.practicum.shareit.etag;
+
+import lombok.Value;
+
+/**
+ * Представление ресурса с его ETag; body равно null, если клиент уже получил это представление.
+ */
+@Value
+public class ETagged<T> {
+    String eTag;
+    T body;
+
+    public boolean isNotModified() {
+        return body == null;
+    }
+}
@@ -7,9 +7,17 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    @Query("select c from Comment c where c.itemId = ?1")
+    @Query("select c from Comment c where c.itemId = ?1 order by c.created desc, c.id desc")
     List<Comment> findAllByItemId(Long itemId);
 
-    @Query("select c from Comment c where c.itemId in (?1)")
+    @Query("select c from Comment c where c.itemId in (?1) order by c.created desc, c.id desc")
     List<Comment> findAllForItems(List<Long> itemIds);
+
+    @Query(value = "select * from (" +
+            "select c.*, row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn " +
+            "from comments c " +
+            "where c.item_id in (?1)) c " +
+            "where c.rn <= ?2 " +
+            "order by c.created desc, c.id desc", nativeQuery = true)
+    List<Comment> findLatestForItems(List<Long> itemIds, int limit);
 }
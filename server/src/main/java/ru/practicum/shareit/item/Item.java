@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -14,7 +15,8 @@ import javax.persistence.*;
 @Table(name = "items", schema = "public")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -28,4 +30,14 @@ public class Item {
 
     @Column(name = "request_id")
     private Long requestId;
+
+    /**
+     * Версия содержимого для ETag: растёт при изменении вещи, её комментариев и аренд.
+     * Меняется только атомарными UPDATE ItemRepository (incrementVersion*, updateOfOwner),
+     * поэтому это не @Version: изменение аренды или комментария во время PATCH
+     * не должно ронять его оптимистической блокировкой.
+     */
+    @Column(insertable = false, updatable = false)
+    @JsonIgnore
+    private Long version;
 }
@@ -2,9 +2,13 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.etag.ETagged;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 
@@ -22,28 +26,57 @@ public class ItemController {
 
     @GetMapping
     public List<ItemDto> getItems(@RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
-                                  @RequestParam(name = "from", required = false) Integer pageNum,
-                                  @RequestParam(name = "size", required = false) Integer pageSize) {
+                                  @RequestParam(name = "from", required = false) Integer from,
+                                  @RequestParam(name = "size", required = false) Integer pageSize,
+                                  @RequestParam(required = false) Integer commentsLimit) {
         log.info("Запрос на получение списка вещей");
-        return itemService.getItemsByUserId(userId, pageNum, pageSize);
+        return itemService.getItemsByUserId(userId, from, pageSize, commentsLimit);
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<List<ItemDto>> getItemsAfter(@RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
+                                                       @RequestParam String after,
+                                                       @RequestParam(name = "size", defaultValue = "10") Integer pageSize,
+                                                       @RequestParam(required = false) Integer commentsLimit) {
+        log.info("Запрос на получение списка вещей после курсора");
+        List<ItemDto> items = itemService.getItemsByUserIdAfter(userId, after, pageSize, commentsLimit);
+        return PageCursor.withNextCursor(items, pageSize, item -> PageCursor.encode(item.getId()));
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(
+    public ResponseEntity<ItemDto> getItemById(
             @RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
-            @PathVariable Long itemId) {
+            @PathVariable Long itemId,
+            WebRequest request) {
         log.info("Запрос на получение вещи id=" + itemId);
-        return itemService.getItemById(itemId, userId);
+        ETagged<ItemDto> item = itemService.getItemById(itemId, userId, request::checkNotModified);
+        if (item.isNotModified()) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(item.getETag()).body(item.getBody());
     }
 
     @GetMapping("/search")
     public List<ItemDto> searchItemsByText(
             @RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
             @RequestParam String text,
-            @RequestParam(name = "from", required = false) Integer pageNum,
-            @RequestParam(name = "size", required = false) Integer pageSize) {
+            @RequestParam(name = "from", required = false) Integer from,
+            @RequestParam(name = "size", required = false) Integer pageSize,
+            @RequestParam(required = false) Integer commentsLimit) {
         log.info("Запрос на поиск вещи. Текст запроса: " + text);
-        return itemService.searchItemsByText(userId, text, pageNum, pageSize);
+        return itemService.searchItemsByText(userId, text, from, pageSize, commentsLimit);
+    }
+
+    @GetMapping(path = "/search", params = "after")
+    public ResponseEntity<List<ItemDto>> searchItemsByTextAfter(
+            @RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
+            @RequestParam String text,
+            @RequestParam String after,
+            @RequestParam(name = "size", defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) Integer commentsLimit) {
+        log.info("Запрос на поиск вещи после курсора. Текст запроса: " + text);
+        List<ItemDto> items = itemService.searchItemsByTextAfter(userId, text, after, pageSize, commentsLimit);
+        return PageCursor.withNextCursor(items, pageSize, item -> PageCursor.encode(item.getId()));
     }
 
     @PostMapping
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,18 +19,65 @@ public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositor
     @Query("select i from Item i where i.ownerId = ?1 order by i.id asc")
     List<Item> findAllByOwnerId(Long userId, Pageable pageable);
 
+    @Query("select i from Item i where i.ownerId = ?1 and i.id > ?2 order by i.id asc")
+    List<Item> findAllByOwnerIdAfter(Long userId, Long afterId, Pageable pageable);
+
+    @Query("select count(i) > 0 from Item i where i.ownerId = ?1")
+    boolean existsByOwnerId(Long userId);
+
+    /**
+     * Вещь с блокировкой строки до конца транзакции: аренды одной вещи создаются по очереди,
+     * и проверка пересечений видит аренды, созданные перед этим другими запросами.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    /**
+     * Блокирует вещи в порядке id, чтобы пакеты с общими вещами не ждали друг друга по кругу.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id asc")
+    List<Item> findAllByIdForUpdate(Collection<Long> itemIds);
+
     @Query("select i from Item i where i.ownerId = ?1 and id = ?2")
     Optional<Item> findByIdAndOwnerId(Long userId, Long itemId);
 
     @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))" +
-            " and i.available = true")
+            "where (lower(i.name) like concat('%', lower(?1), '%') " +
+            " or lower(i.description) like concat('%', lower(?1), '%'))" +
+            " and i.available = true" +
+            " order by i.id asc")
     List<Item> findByText(String text);
 
     @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))" +
-            " and i.available = true")
+            "where (lower(i.name) like concat('%', lower(?1), '%') " +
+            " or lower(i.description) like concat('%', lower(?1), '%'))" +
+            " and i.available = true" +
+            " order by i.id asc")
     List<Item> findByTextPageable(String text, Pageable pageable);
+
+    @Query(" select i from Item i " +
+            "where (lower(i.name) like concat('%', lower(?1), '%') " +
+            " or lower(i.description) like concat('%', lower(?1), '%'))" +
+            " and i.available = true" +
+            " and i.id > ?2" +
+            " order by i.id asc")
+    List<Item> findByTextAfter(String text, Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 where i.id = ?1")
+    void incrementVersion(Long itemId);
+
+    @Transactional
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 where i.id in ?1")
+    void incrementVersionOfItems(Collection<Long> itemIds);
+
+    @Transactional
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 " +
+            "where i.id in (select b.item.id from Booking b where b.booker.id = ?1)")
+    void incrementVersionOfItemsBookedBy(Long userId);
 }
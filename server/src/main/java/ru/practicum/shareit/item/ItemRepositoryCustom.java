@@ -1,5 +1,16 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
 public interface ItemRepositoryCustom {
 
+    List<Item> searchAvailable(String text, Pageable pageable);
+
+    /**
+     * Записывает непустые поля вещи владельца и увеличивает версию одним UPDATE.
+     * Возвращает число изменённых строк: 0, если у владельца нет такой вещи.
+     */
+    int updateOfOwner(Long ownerId, Long itemId, String name, String description, Boolean available);
 }
@@ -1,12 +1,86 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту и частичное изменение вещи.
+ * Режим like переносим на H2, режим trigram использует функции pg_trgm
+ * и сортирует результат по степени сходства с запросом.
+ */
 public class ItemRepositoryImpl implements ItemRepositoryCustom {
+    static final String TRIGRAM_ENGINE = "trigram";
+
+    private static final String TRIGRAM_SEARCH_QUERY = "select i.* from items i " +
+            "where i.available = true " +
+            "and (lower(i.name) like ?1 escape '\\' or lower(i.description) like ?1 escape '\\') " +
+            "order by greatest(similarity(lower(i.name), ?2), similarity(lower(i.description), ?2)) desc, i.id asc";
 
     private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final boolean trigramSearch;
 
-    public ItemRepositoryImpl(@Lazy ItemRepository itemRepository) {
+    public ItemRepositoryImpl(@Lazy ItemRepository itemRepository, EntityManager entityManager,
+                              @Value("${shareit.search.engine:like}") String searchEngine) {
         this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+        this.trigramSearch = TRIGRAM_ENGINE.equalsIgnoreCase(searchEngine);
+    }
+
+    @Override
+    public List<Item> searchAvailable(String text, Pageable pageable) {
+        if (!trigramSearch) {
+            return pageable.isPaged() ? itemRepository.findByTextPageable(text, pageable)
+                    : itemRepository.findByText(text);
+        }
+        return searchByTrigrams(text, pageable);
+    }
+
+    @Override
+    @Transactional
+    public int updateOfOwner(Long ownerId, Long itemId, String name, String description, Boolean available) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Item> update = cb.createCriteriaUpdate(Item.class);
+        Root<Item> item = update.from(Item.class);
+        if (name != null) {
+            update.set(item.<String>get("name"), name);
+        }
+        if (description != null) {
+            update.set(item.<String>get("description"), description);
+        }
+        if (available != null) {
+            update.set(item.<Boolean>get("available"), available);
+        }
+        update.set(item.<Long>get("version"), cb.sum(item.<Long>get("version"), 1L))
+                .where(cb.equal(item.get("id"), itemId), cb.equal(item.get("ownerId"), ownerId));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Item> searchByTrigrams(String text, Pageable pageable) {
+        String lowerText = text.toLowerCase();
+        Query query = entityManager.createNativeQuery(TRIGRAM_SEARCH_QUERY, Item.class)
+                .setParameter(1, "%" + escapeLikePattern(lowerText) + "%")
+                .setParameter(2, lowerText);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    private String escapeLikePattern(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+
+/**
+ * Вещь создана или изменена; слушатели получают событие после фиксации транзакции.
+ */
+@Value
+public class ItemSavedEvent {
+    Item item;
+}
@@ -0,0 +1,438 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Поисковый индекс вещей в памяти приложения.
+ * Для названия и описания каждой вещи хранятся n-граммы длиной от 1 до 3 символов
+ * в нижнем регистре. Списки вхождений n-грамм - массивы номеров документов,
+ * отсортированные по id вещи документа.
+ * Поиск идёт по спискам вхождений n-грамм запроса от первой вещи после курсора,
+ * пересекает их продвижением двоичным поиском, проверяет подстроку только у кандидатов
+ * и останавливается, набрав offset + limit вещей.
+ * Изменённая вещь сохраняет номер документа, в списках вхождений меняются только разные n-граммы.
+ * Вещь с id меньше уже проиндексированных вставляется в списки вхождений на своё место,
+ * номера удалённых вещей переиспользуются: индекс целиком строится только в rebuild.
+ * Индекс обновляется после фиксации транзакции, изменившей вещь, только в том экземпляре сервера,
+ * который её изменил, и включается настройкой shareit.search.engine=memory.
+ * Поэтому режим memory рассчитан на один экземпляр сервера: при нескольких экземплярах
+ * нужен поиск в базе данных (like или trigram).
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    static final String MEMORY_ENGINE = "memory";
+    private static final int MAX_GRAM_LENGTH = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, PostingList> postings = new HashMap<>();
+    private Map<Long, Integer> documentByItemId = new HashMap<>();
+    private Item[] documents = new Item[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    /**
+     * id вещи каждого документа: по ним упорядочены списки вхождений.
+     */
+    private long[] itemIds = new long[INITIAL_CAPACITY];
+    private BitSet searchable = new BitSet();
+    private Deque<Integer> freeDocuments = new ArrayDeque<>();
+    private int documentCount;
+    private int loadCount;
+    /**
+     * Изменения, пришедшие во время чтения вещей для rebuild: повторяются на новом индексе.
+     */
+    private List<Runnable> updatesDuringRebuild;
+
+    public ItemSearchIndex(@Lazy ItemRepository itemRepository,
+                           @Value("${shareit.search.engine:like}") String searchEngine) {
+        this.itemRepository = itemRepository;
+        this.enabled = MEMORY_ENGINE.equalsIgnoreCase(searchEngine);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            updatesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Item> items;
+        try {
+            items = itemRepository.findAll();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        List<Item> copies = new ArrayList<>(items.size());
+        for (Item item : items) {
+            copies.add(copyOf(item));
+        }
+        lock.writeLock().lock();
+        try {
+            load(copies);
+            updatesDuringRebuild.forEach(Runnable::run);
+            updatesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен, вещей: {}", items.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        index(event.getItem());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeItemsOfOwner(event.getUserId());
+    }
+
+    void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        Item copy = copyOf(item);
+        update(() -> putDocument(copy));
+    }
+
+    void removeItemsOfOwner(Long ownerId) {
+        if (!enabled) {
+            return;
+        }
+        update(() -> {
+            Iterator<Integer> iterator = documentByItemId.values().iterator();
+            while (iterator.hasNext()) {
+                int document = iterator.next();
+                if (ownerId.equals(documents[document].getOwnerId())) {
+                    iterator.remove();
+                    removeDocument(document);
+                }
+            }
+        });
+    }
+
+    /**
+     * Число занятых номеров документов, включая свободные для переиспользования.
+     */
+    int documentSlots() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сколько раз индекс строился целиком.
+     */
+    int loads() {
+        lock.readLock().lock();
+        try {
+            return loadCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает доступные вещи, в названии или описании которых есть текст,
+     * в порядке возрастания id, пропуская первые offset вещей.
+     */
+    public List<Item> search(String text, long afterId, long offset, int limit) {
+        String query = text.toLowerCase();
+        List<Item> result = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            List<PostingList> queryPostings = postingsOf(query);
+            if (queryPostings.isEmpty()) {
+                return result;
+            }
+            PostingList shortest = queryPostings.get(0);
+            int[] positions = new int[queryPostings.size()];
+            long skipped = 0;
+            int first = afterId == Long.MAX_VALUE ? shortest.size() : shortest.lowerBound(afterId + 1, 0, itemIds);
+            for (int i = first; i < shortest.size() && result.size() < limit; i++) {
+                int document = shortest.get(i);
+                if (!searchable.get(document) || !containsInOthers(queryPostings, positions, document, itemIds)) {
+                    continue;
+                }
+                if (query.length() > MAX_GRAM_LENGTH && !names[document].contains(query)
+                        && !descriptions[document].contains(query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(copyOf(documents[document]));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Списки вхождений n-грамм запроса от самого короткого к самому длинному;
+     * пустой список, если какой-то n-граммы нет в индексе.
+     */
+    private List<PostingList> postingsOf(String query) {
+        if (query.length() <= MAX_GRAM_LENGTH) {
+            PostingList postingList = postings.get(query);
+            return postingList == null ? List.of() : List.of(postingList);
+        }
+        List<PostingList> queryPostings = new ArrayList<>();
+        for (String gram : gramsOf(query, MAX_GRAM_LENGTH, MAX_GRAM_LENGTH)) {
+            PostingList postingList = postings.get(gram);
+            if (postingList == null) {
+                return List.of();
+            }
+            queryPostings.add(postingList);
+        }
+        queryPostings.sort(Comparator.comparingInt(PostingList::size));
+        return queryPostings;
+    }
+
+    /**
+     * Продвигает позиции в остальных списках до id документа; списки упорядочены по id,
+     * поэтому позиции только растут.
+     */
+    private static boolean containsInOthers(List<PostingList> queryPostings, int[] positions, int document,
+                                            long[] itemIds) {
+        for (int i = 1; i < queryPostings.size(); i++) {
+            PostingList postingList = queryPostings.get(i);
+            positions[i] = postingList.lowerBound(itemIds[document], positions[i], itemIds);
+            if (positions[i] == postingList.size() || postingList.get(positions[i]) != document) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Строит индекс заново; вещи добавляются в порядке id, поэтому каждая встаёт в конец списков вхождений.
+     */
+    private void load(List<Item> items) {
+        items.sort(Comparator.comparing(Item::getId));
+        int capacity = Math.max(INITIAL_CAPACITY, items.size());
+        postings = new HashMap<>();
+        documentByItemId = new HashMap<>();
+        documents = new Item[capacity];
+        names = new String[capacity];
+        descriptions = new String[capacity];
+        itemIds = new long[capacity];
+        searchable = new BitSet(capacity);
+        freeDocuments = new ArrayDeque<>();
+        documentCount = 0;
+        loadCount++;
+        for (Item item : items) {
+            putDocument(item);
+        }
+    }
+
+    private void putDocument(Item item) {
+        Integer existing = documentByItemId.get(item.getId());
+        int document = existing != null ? existing : allocateDocument(item.getId());
+        Set<String> oldGrams = existing != null ? gramsOfDocument(document) : Set.of();
+        documents[document] = item;
+        names[document] = lowerCase(item.getName());
+        descriptions[document] = lowerCase(item.getDescription());
+        documentByItemId.put(item.getId(), document);
+        Set<String> newGrams = gramsOfDocument(document);
+        for (String gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                removePosting(gram, document);
+            }
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(document, itemIds);
+            }
+        }
+        searchable.set(document, item.isAvailable());
+    }
+
+    /**
+     * Номер удалённого документа становится свободным и достаётся следующей новой вещи.
+     */
+    private void removeDocument(int document) {
+        for (String gram : gramsOfDocument(document)) {
+            removePosting(gram, document);
+        }
+        documents[document] = null;
+        names[document] = null;
+        descriptions[document] = null;
+        searchable.clear(document);
+        freeDocuments.push(document);
+    }
+
+    private int allocateDocument(long itemId) {
+        if (!freeDocuments.isEmpty()) {
+            int document = freeDocuments.pop();
+            itemIds[document] = itemId;
+            return document;
+        }
+        int document = documentCount++;
+        if (document == documents.length) {
+            int capacity = documents.length * 2;
+            documents = Arrays.copyOf(documents, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            itemIds = Arrays.copyOf(itemIds, capacity);
+        }
+        itemIds[document] = itemId;
+        return document;
+    }
+
+    private void removePosting(String gram, int document) {
+        PostingList postingList = postings.get(gram);
+        if (postingList != null && postingList.remove(document, itemIds) && postingList.size() == 0) {
+            postings.remove(gram);
+        }
+    }
+
+    private Set<String> gramsOfDocument(int document) {
+        Set<String> grams = gramsOf(names[document], 1, MAX_GRAM_LENGTH);
+        grams.addAll(gramsOf(descriptions[document], 1, MAX_GRAM_LENGTH));
+        return grams;
+    }
+
+    private static Set<String> gramsOf(String text, int minLength, int maxLength) {
+        Set<String> grams = new HashSet<>();
+        for (int length = minLength; length <= maxLength; length++) {
+            for (int start = 0; start + length <= text.length(); start++) {
+                grams.add(text.substring(start, start + length));
+            }
+        }
+        return grams;
+    }
+
+    private static String lowerCase(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    private static Item copyOf(Item item) {
+        Item copy = new Item();
+        copy.setId(item.getId());
+        copy.setName(item.getName());
+        copy.setDescription(item.getDescription());
+        copy.setAvailable(item.isAvailable());
+        copy.setOwnerId(item.getOwnerId());
+        copy.setRequestId(item.getRequestId());
+        return copy;
+    }
+
+    /**
+     * Массив номеров документов, отсортированный по id их вещей. Новые вещи обычно получают
+     * наибольший id и добавляются в конец; место остальных находится двоичным поиском.
+     */
+    private static class PostingList {
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document, long[] itemIds) {
+            long itemId = itemIds[document];
+            int index = size == 0 || itemIds[documents[size - 1]] < itemId ? size : lowerBound(itemId, 0, itemIds);
+            if (index < size && documents[index] == document) {
+                return;
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            System.arraycopy(documents, index, documents, index + 1, size - index);
+            documents[index] = document;
+            size++;
+        }
+
+        /**
+         * Массив сжимается, когда заполнен меньше чем на четверть.
+         */
+        boolean remove(int document, long[] itemIds) {
+            int index = lowerBound(itemIds[document], 0, itemIds);
+            if (index == size || documents[index] != document) {
+                return false;
+            }
+            System.arraycopy(documents, index + 1, documents, index, size - index - 1);
+            size--;
+            if (documents.length > 4 && size < documents.length / 4) {
+                documents = Arrays.copyOf(documents, documents.length / 2);
+            }
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return documents[index];
+        }
+
+        /**
+         * Позиция первого документа с id не меньше itemId, начиная с from: галопом, затем двоичным поиском.
+         */
+        int lowerBound(long itemId, int from, long[] itemIds) {
+            if (from >= size || itemIds[documents[from]] >= itemId) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            while (low + step < size && itemIds[documents[low + step]] < itemId) {
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(low + step, size);
+            while (low + 1 < high) {
+                int middle = (low + high) >>> 1;
+                if (itemIds[documents[middle]] < itemId) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+            return high;
+        }
+    }
+}
@@ -2,25 +2,33 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.etag.ETagged;
+import ru.practicum.shareit.etag.ETags;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.WrongDataException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,27 +38,35 @@ public class ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
     private final ItemDtoMapper itemDtoMapper;
     private final BookingDtoMapper bookingDtoMapper;
     private final CommentDtoMapper commentDtoMapper;
 
-    public List<ItemDto> getItemsByUserId(Long userId, Integer pageNum, Integer pageSize) {
-        getUserIfExists(userId);
-        if (pageNum == null && pageSize == null) {
-            return getItemsByUserIdWithoutPaging(userId);
+    /**
+     * @param from индекс первой вещи, как в списках аренд; без pageSize список не делится на страницы
+     */
+    public List<ItemDto> getItemsByUserId(Long userId, Integer from, Integer pageSize, Integer commentsLimit) {
+        userExistenceChecker.checkExists(userId);
+        validateCommentsLimit(commentsLimit);
+        if (pageSize == null) {
+            return getItemsByUserIdWithoutPaging(userId, commentsLimit);
         }
-        return getItemsByUserIdWithPaging(userId, pageNum, pageSize);
+        return getItemsByUserIdWithPaging(userId, pageOf(from, pageSize), commentsLimit);
     }
 
     public ItemDto addItem(Long userId, ItemDto itemDto) {
         ItemRequest itemRequest;
         validateItemDto(itemDto);
-        getUserIfExists(userId);
+        userExistenceChecker.checkExists(userId);
         itemDto.setOwnerId(userId);
         Item item = itemRepository.save(itemDtoMapper.mapToItem(itemDto));
+        eventPublisher.publishEvent(new ItemSavedEvent(item));
         if (itemDto.getRequestId() != null) {
             itemRequest = requestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new NotFoundException("Запрос id=" + itemDto.getRequestId() + " не найден"));
@@ -61,19 +77,36 @@ public class ItemService {
     }
 
     public ItemDto getItemById(Long itemId, Long userId) throws NotFoundException {
+        return getItemById(itemId, userId, eTag -> false).getBody();
+    }
+
+    /**
+     * Вещь с ETag; комментарии загружаются, только если notModified не принял ETag.
+     * ETag строится из версии вещи, которая растёт при изменении вещи, её комментариев и аренд.
+     * Владельцу показываются последняя и следующая аренды, которые со временем меняются местами,
+     * поэтому для него в ETag входят и их id: они загружаются до проверки ETag и входят в ответ.
+     */
+    public ETagged<ItemDto> getItemById(Long itemId, Long userId, Predicate<String> notModified)
+            throws NotFoundException {
         Optional<Item> item = itemRepository.findById(itemId);
-        if (item.isPresent()) {
-            ItemDto itemDto = itemDtoMapper.mapToDto(item.get());
-            findCommentsForItem(itemDto);
-            return findLastAndNextBookings(itemDto, userId);
+        if (item.isEmpty()) {
+            String message = "Вещь id=" + itemId + " не найдена";
+            log.error(message);
+            throw new NotFoundException(message);
+        }
+        ItemDto itemDto = findLastAndNextBookings(itemDtoMapper.mapToDto(item.get()), userId);
+        String eTag = itemDto.getOwnerId().equals(userId)
+                ? ETags.of(itemDto.getId(), item.get().getVersion(), userId, bookingIdOf(itemDto.getLastBooking()),
+                        bookingIdOf(itemDto.getNextBooking()))
+                : ETags.of(itemDto.getId(), item.get().getVersion());
+        if (notModified.test(eTag)) {
+            return new ETagged<>(eTag, null);
         }
-        String message = "Вещь id=" + itemId + " не найдена";
-        log.error(message);
-        throw new NotFoundException(message);
+        return new ETagged<>(eTag, findCommentsForItem(itemDto));
     }
 
     public ItemDto getItemByIdAndOwnerId(Long userId, Long itemId) {
-        getUserIfExists(userId);
+        userExistenceChecker.checkExists(userId);
         Item itemOptional = itemRepository.findByIdAndOwnerId(userId, itemId).orElseThrow(
                 () -> new NotFoundException("Вещь с id=" + itemId + " не найдена у пользователя id=" + userId)
         );
@@ -82,40 +115,81 @@ public class ItemService {
         return findLastAndNextBookings(itemDto, userId);
     }
 
-    public List<ItemDto> searchItemsByText(Long userId, String text, Integer pageNum, Integer pageSize) {
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItemsByText(Long userId, String text, Integer from, Integer pageSize,
+                                           Integer commentsLimit) {
         List<Item> items;
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        if (pageNum == null && pageSize == null) {
-            items = itemRepository.findByText(text.toLowerCase());
+        validateCommentsLimit(commentsLimit);
+        Pageable page = pageOf(from, pageSize);
+        if (itemSearchIndex.isEnabled()) {
+            items = page.isUnpaged()
+                    ? itemSearchIndex.search(text, 0L, 0L, Integer.MAX_VALUE)
+                    : itemSearchIndex.search(text, 0L, page.getOffset(), pageSize);
         } else {
-            items = itemRepository.findByTextPageable(text.toLowerCase(), PageRequest.of(pageNum, pageSize));
+            items = itemRepository.searchAvailable(text.toLowerCase(), page);
         }
         List<ItemDto> result = items.stream()
                 .map(itemDtoMapper::mapToDto)
                 .collect(Collectors.toList());
-        findCommentsForItems(result);
+        findCommentsForItems(result, commentsLimit);
         return findLastAndNextBookings(result, userId);
     }
 
-    public ItemDto updateItem(Long userId, Long itemId, ItemDto newItemDto) {
-        ItemDto itemDto = getItemByIdAndOwnerId(userId, itemId);
-        itemDto.setId(itemId);
-        if (newItemDto.getName() != null) {
-            itemDto.setName(newItemDto.getName());
-        }
-        if (newItemDto.getDescription() != null) {
-            itemDto.setDescription(newItemDto.getDescription());
+    public List<ItemDto> getItemsByUserIdAfter(Long userId, String after, Integer pageSize, Integer commentsLimit) {
+        userExistenceChecker.checkExists(userId);
+        PageCursor.validatePageSize(pageSize);
+        validateCommentsLimit(commentsLimit);
+        List<ItemDto> itemDtos = itemRepository.findAllByOwnerIdAfter(userId, firstIdAfter(after),
+                        PageRequest.of(0, pageSize)).stream()
+                .map(itemDtoMapper::mapToDto)
+                .collect(Collectors.toList());
+        findCommentsForItems(itemDtos, commentsLimit);
+        return findLastAndNextBookings(itemDtos, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItemsByTextAfter(Long userId, String text, String after, Integer pageSize,
+                                                Integer commentsLimit) {
+        if (text.isBlank()) {
+            return Collections.emptyList();
         }
-        if (newItemDto.getAvailable() != null) {
-            itemDto.setAvailable(newItemDto.getAvailable());
+        PageCursor.validatePageSize(pageSize);
+        validateCommentsLimit(commentsLimit);
+        List<Item> items = itemSearchIndex.isEnabled()
+                ? itemSearchIndex.search(text, firstIdAfter(after), 0L, pageSize)
+                : itemRepository.findByTextAfter(text.toLowerCase(), firstIdAfter(after),
+                PageRequest.of(0, pageSize));
+        List<ItemDto> result = items.stream()
+                .map(itemDtoMapper::mapToDto)
+                .collect(Collectors.toList());
+        findCommentsForItems(result, commentsLimit);
+        return findLastAndNextBookings(result, userId);
+    }
+
+    /**
+     * Изменение вещи владельцем: изменённые поля и версия для ETag записываются одним
+     * UPDATE ... WHERE id = ? AND owner_id = ?, затем вещь читается один раз,
+     * комментарии и аренды загружаются по одному запросу.
+     */
+    @Transactional
+    public ItemDto updateItem(Long userId, Long itemId, ItemDto newItemDto) {
+        userExistenceChecker.checkExists(userId);
+        int updated = itemRepository.updateOfOwner(userId, itemId, newItemDto.getName(),
+                newItemDto.getDescription(), newItemDto.getAvailable());
+        if (updated == 0) {
+            throw new NotFoundException("Вещь с id=" + itemId + " не найдена у пользователя id=" + userId);
         }
-        Item item = itemDtoMapper.mapToItem(itemDto);
-        item = itemRepository.save(item);
-        itemDto = itemDtoMapper.mapToDto(item);
+        Item item = itemRepository.findById(itemId).orElseThrow(
+                () -> new NotFoundException("Вещь id=" + itemId + " не найдена")
+        );
+        eventPublisher.publishEvent(new ItemSavedEvent(item));
+        ItemDto itemDto = itemDtoMapper.mapToDto(item);
         findCommentsForItem(itemDto);
-        return findLastAndNextBookings(itemDto, userId);
+        findLastAndNextBookings(List.of(itemDto), userId);
+        return itemDto;
     }
 
     public CommentDto addNewComment(Long userId, Long itemId, CommentDto commentDto) {
@@ -138,29 +212,29 @@ public class ItemService {
         comment.setText(commentDto.getText());
         comment.setCreated(LocalDateTime.now());
         commentDto = commentDtoMapper.mapToDto(commentRepository.save(comment));
+        itemRepository.incrementVersion(itemId);
         return commentDto;
     }
 
-    private List<ItemDto> getItemsByUserIdWithoutPaging(Long userId) {
+    private List<ItemDto> getItemsByUserIdWithoutPaging(Long userId, Integer commentsLimit) {
         List<ItemDto> itemDtos = itemRepository.findAllByOwnerId(userId).stream()
                 .map(itemDtoMapper::mapToDto)
                 .collect(Collectors.toList());
-        findCommentsForItems(itemDtos);
+        findCommentsForItems(itemDtos, commentsLimit);
         return findLastAndNextBookings(itemDtos, userId);
     }
 
-    private List<ItemDto> getItemsByUserIdWithPaging(Long userId, Integer pageNum, Integer pageSize) {
-        Pageable page = PageRequest.of(pageNum, pageSize);
+    private List<ItemDto> getItemsByUserIdWithPaging(Long userId, Pageable page, Integer commentsLimit) {
         List<ItemDto> itemDtos = itemRepository.findAllByOwnerId(userId, page).stream()
                 .map(itemDtoMapper::mapToDto)
                 .collect(Collectors.toList());
-        findCommentsForItems(itemDtos);
+        findCommentsForItems(itemDtos, commentsLimit);
         return findLastAndNextBookings(itemDtos, userId);
     }
 
-    private User getUserIfExists(Long userId) {
-        return userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+    private Long firstIdAfter(String after) {
+        PageCursor cursor = PageCursor.decode(after);
+        return cursor.isFirstPage() ? 0L : cursor.getId();
     }
 
     private ItemDto findCommentsForItem(ItemDto itemDto) {
@@ -174,54 +248,45 @@ public class ItemService {
         return itemDto;
     }
 
-    private List<ItemDto> findCommentsForItems(List<ItemDto> items) {
-        List<Long> idList = new ArrayList<>();
-        for (ItemDto item : items) {
-            idList.add(item.getId());
-            item.setComments(new ArrayList<>());
-        }
-        List<Comment> comments = commentRepository.findAllForItems(idList);
-        if (comments.isEmpty()) {
+    private List<ItemDto> findCommentsForItems(List<ItemDto> items, Integer commentsLimit) {
+        if (items.isEmpty()) {
             return items;
         }
+        Map<Long, ItemDto> itemsById = new HashMap<>();
         for (ItemDto item : items) {
-            for (Comment comment : comments) {
-                if (comment.getItemId().equals(item.getId())) {
-                    item.getComments().add(commentDtoMapper.mapToDto(comment));
-                }
+            item.setComments(new ArrayList<>());
+            itemsById.put(item.getId(), item);
+        }
+        List<Long> idList = new ArrayList<>(itemsById.keySet());
+        List<Comment> comments = commentsLimit == null
+                ? commentRepository.findAllForItems(idList)
+                : commentRepository.findLatestForItems(idList, commentsLimit);
+        for (Comment comment : comments) {
+            ItemDto item = itemsById.get(comment.getItemId());
+            if (item != null) {
+                item.getComments().add(commentDtoMapper.mapToDto(comment));
             }
         }
         return items;
     }
 
     private List<ItemDto> findLastAndNextBookings(List<ItemDto> itemDtos, Long userId) {
-        LocalDateTime now = LocalDateTime.now();
-        List<Long> itemIds = new ArrayList<>();
-        for (ItemDto itemDto : itemDtos) {
-            itemIds.add(itemDto.getId());
-        }
-        List<Booking> bookings = bookingRepository.findAllBookingsForItems(itemIds);
-        if (bookings.isEmpty()) {
+        if (itemDtos.isEmpty()) {
             return itemDtos;
         }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemDto> itemsById = new HashMap<>();
         for (ItemDto itemDto : itemDtos) {
-            List<Booking> nextBooking = bookings.stream()
-                    .filter(booking -> booking.getStart().isAfter(now))
-                    .filter(booking -> booking.getItem().getId().equals(itemDto.getId()))
-                    .sorted(Comparator.comparing(Booking::getStart))
-                    .limit(1)
-                    .collect(Collectors.toList());
-            List<Booking> lastBooking = bookings.stream()
-                    .filter(booking -> booking.getStart().isBefore(now))
-                    .filter(booking -> booking.getItem().getId().equals(itemDto.getId()))
-                    .sorted(Comparator.comparing(Booking::getStart).reversed())
-                    .limit(1)
-                    .collect(Collectors.toList());
-            if (!nextBooking.isEmpty()) {
-                itemDto.setNextBooking(bookingDtoMapper.toDto(nextBooking.get(0)));
-            }
-            if (!lastBooking.isEmpty()) {
-                itemDto.setLastBooking(bookingDtoMapper.toDto(lastBooking.get(0)));
+            itemsById.put(itemDto.getId(), itemDto);
+        }
+        List<Booking> bookings = bookingRepository.findLastAndNextBookingsForItems(
+                new ArrayList<>(itemsById.keySet()), now);
+        for (Booking booking : bookings) {
+            ItemDto itemDto = itemsById.get(booking.getItem().getId());
+            if (booking.getStart().isBefore(now)) {
+                itemDto.setLastBooking(bookingDtoMapper.toDto(booking));
+            } else {
+                itemDto.setNextBooking(bookingDtoMapper.toDto(booking));
             }
         }
         return itemDtos;
@@ -229,10 +294,7 @@ public class ItemService {
 
     private ItemDto findLastAndNextBookings(ItemDto itemDto, Long userId) {
         if (itemDto.getOwnerId().equals(userId)) {
-            Optional<Booking> nextBooking = bookingRepository.findNextBookingForItem(itemDto.getId());
-            Optional<Booking> lastBooking = bookingRepository.findLastBookingForItem(itemDto.getId());
-            nextBooking.ifPresent(booking -> itemDto.setNextBooking(bookingDtoMapper.toDto(booking)));
-            lastBooking.ifPresent(booking -> itemDto.setLastBooking(bookingDtoMapper.toDto(booking)));
+            findLastAndNextBookings(List.of(itemDto), userId);
             return itemDto;
         }
         itemDto.setLastBooking(null);
@@ -240,6 +302,31 @@ public class ItemService {
         return itemDto;
     }
 
+    private static Long bookingIdOf(BookingDto booking) {
+        return booking == null ? null : booking.getId();
+    }
+
+    /**
+     * Страница, на которую попадает вещь с индексом from (по умолчанию 0), как в списках аренд;
+     * без pageSize - весь список.
+     */
+    private static Pageable pageOf(Integer from, Integer pageSize) {
+        if (pageSize == null) {
+            return Pageable.unpaged();
+        }
+        int first = from == null ? 0 : from;
+        if (first < 0 || pageSize <= 0) {
+            throw new WrongDataException("Ошибка: неверно указан начальный индекс или размер страницы");
+        }
+        return PageRequest.of(first / pageSize, pageSize);
+    }
+
+    private void validateCommentsLimit(Integer commentsLimit) {
+        if (commentsLimit != null && commentsLimit <= 0) {
+            throw new WrongDataException("Ошибка: неверно указано количество комментариев");
+        }
+    }
+
     private void validateItemDto(ItemDto itemDto) throws WrongDataException {
         StringBuilder message = new StringBuilder();
         if (itemDto.getDescription() == null || itemDto.getName().isBlank()) {
@@ -257,14 +344,7 @@ public class ItemService {
         }
     }
 
-    private Boolean checkUserIsBookerOfItem(Long userId, Long itemId) {
-        List<Booking> bookings = bookingRepository.findAllByUserId(userId);
-        if (bookings.isEmpty()) {
-            return false;
-        }
-        for (Booking booking : bookings) {
-            if (booking.getItem().getId().equals(itemId) && booking.getStart().isBefore(LocalDateTime.now())) return true;
-        }
-        return false;
+    private boolean checkUserIsBookerOfItem(Long userId, Long itemId) {
+        return bookingRepository.existsStartedBookingOfItem(userId, itemId, LocalDateTime.now());
     }
 }
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Метрики методов репозиториев Spring Data: таймер shareit.repository.query и распределение
+ * числа строк в ответе shareit.repository.rows. Теги: repository, method, paging (paged, unpaged
+ * или none по параметру Pageable) и exception. Перегруженные findAll* различаются по тегу paging.
+ * Встроенные метрики spring.data.repository.invocations отключены, чтобы не замерять вызовы дважды.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+    static final String METRIC_NAME = "shareit.repository.query";
+    static final String ROWS_METRIC_NAME = "shareit.repository.rows";
+    private static final double[] ROWS_BUCKETS = {1, 10, 100, 1000, 10000};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " && this(org.springframework.data.repository.Repository)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = Tags.of("repository", repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(),
+                        proxyClass -> repositoryNameOf(joinPoint.getThis())),
+                "method", joinPoint.getSignature().getName(),
+                "paging", pagingOf(joinPoint.getArgs()));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = ServiceMetricsAspect.NONE;
+        try {
+            Object result = joinPoint.proceed();
+            Long rows = rowsOf(result);
+            if (rows != null) {
+                DistributionSummary.builder(ROWS_METRIC_NAME)
+                        .description("Число строк в ответах репозиториев ShareIt")
+                        .baseUnit("rows")
+                        .serviceLevelObjectives(ROWS_BUCKETS)
+                        .tags(tags)
+                        .register(meterRegistry)
+                        .record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Время выполнения методов репозиториев ShareIt")
+                    .tags(tags)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    static String pagingOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Pageable) {
+                return ((Pageable) arg).isPaged() ? "paged" : "unpaged";
+            }
+        }
+        return ServiceMetricsAspect.NONE;
+    }
+
+    /**
+     * Число строк для списков, страниц, Optional и сущностей; для счётчиков, флагов и void - null.
+     */
+    static Long rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return (long) ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return (long) ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1L : 0L;
+        }
+        if (result == null || result instanceof Number || result instanceof Boolean) {
+            return null;
+        }
+        return 1L;
+    }
+
+    private static String repositoryNameOf(Object proxy) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import java.util.Set;
+
+/**
+ * Таймер shareit.service на каждый публичный метод BookingService, ItemService, ItemRequestService
+ * и UserService. Теги: class, method, state (состояние аренд из параметра state), paging
+ * (paged, unpaged, cursor или none) и exception.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    static final String METRIC_NAME = "shareit.service";
+    static final String NONE = "none";
+
+    private static final String STATE_PARAMETER = "state";
+    private static final String CURSOR_PARAMETER = "after";
+    private static final Set<String> PAGE_PARAMETERS = Set.of("from", "pageNum", "pageSize");
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit.booking.BookingService.*(..))"
+            + " || execution(public * ru.practicum.shareit.item.ItemService.*(..))"
+            + " || execution(public * ru.practicum.shareit.request.ItemRequestService.*(..))"
+            + " || execution(public * ru.practicum.shareit.user.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String[] names = signature.getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Время выполнения методов сервисов ShareIt")
+                    .tag("class", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag("state", stateOf(names, args))
+                    .tag("paging", pagingOf(names, args))
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Неизвестное состояние попадает в тег как UNSUPPORTED, чтобы произвольный ввод не плодил метрики.
+     */
+    static String stateOf(String[] names, Object[] args) {
+        for (int i = 0; i < names.length; i++) {
+            if (!STATE_PARAMETER.equals(names[i])) {
+                continue;
+            }
+            if (args[i] == null) {
+                return BookingState.ALL.name();
+            }
+            for (BookingState state : BookingState.values()) {
+                if (state.name().equalsIgnoreCase(args[i].toString())) {
+                    return state.name();
+                }
+            }
+            return "UNSUPPORTED";
+        }
+        return NONE;
+    }
+
+    static String pagingOf(String[] names, Object[] args) {
+        boolean pageable = false;
+        boolean paged = true;
+        for (int i = 0; i < names.length; i++) {
+            if (CURSOR_PARAMETER.equals(names[i])) {
+                return "cursor";
+            }
+            if (PAGE_PARAMETERS.contains(names[i])) {
+                pageable = true;
+                paged &= args[i] != null;
+            }
+        }
+        if (!pageable) {
+            return NONE;
+        }
+        return paged ? "paged" : "unpaged";
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.WrongDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Непрозрачный курсор для постраничной выдачи без OFFSET.
+ * Хранит ключ последней выданной записи: id и дату сортировки - начало аренды или создание запроса.
+ * Пустой токен означает первую страницу.
+ */
+@Getter
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final Long id;
+
+    private PageCursor(LocalDateTime start, Long id) {
+        this.start = start;
+        this.id = id;
+    }
+
+    public boolean isFirstPage() {
+        return id == null;
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return new PageCursor(null, null);
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                return new PageCursor(null, Long.parseLong(value));
+            }
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Long.parseLong(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new WrongDataException("Ошибка: неверно указан курсор страницы");
+        }
+    }
+
+    public static String encode(Long id) {
+        return encodeValue(String.valueOf(id));
+    }
+
+    public static String encode(String start, Long id) {
+        return encodeValue(start + SEPARATOR + id);
+    }
+
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, Integer pageSize,
+                                                             Function<T, String> cursorOfElement) {
+        if (page.isEmpty() || page.size() < pageSize) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOfElement.apply(page.get(page.size() - 1)))
+                .body(page);
+    }
+
+    public static void validatePageSize(Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            throw new WrongDataException("Ошибка: неверно указан размер страницы");
+        }
+    }
+
+    private static String encodeValue(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
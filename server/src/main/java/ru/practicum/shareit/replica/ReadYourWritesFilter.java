@@ -0,0 +1,48 @@
+package ru.practicum.shareit.replica;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Передаёт ReadYourWritesTracker пользователя из X-Sharer-User-Id и признак изменяющего запроса.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = userIdOf(request);
+        boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+        readYourWritesTracker.beginRequest(userId, write);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            readYourWritesTracker.endRequest(userId, write);
+        }
+    }
+
+    private static Long userIdOf(HttpServletRequest request) {
+        String header = request.getHeader(USER_ID_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
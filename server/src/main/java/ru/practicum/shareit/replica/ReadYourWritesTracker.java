@@ -0,0 +1,48 @@
+package ru.practicum.shareit.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Решает, можно ли читать текущий HTTP-запрос с реплики. Нельзя, если запрос сам изменяет данные
+ * или его пользователь изменял данные в последние readYourWritesWindow.
+ */
+public class ReadYourWritesTracker {
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private static final int MAX_TRACKED_USERS = 100_000;
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration readYourWritesWindow) {
+        this(readYourWritesWindow, Ticker.systemTicker());
+    }
+
+    ReadYourWritesTracker(Duration readYourWritesWindow, Ticker ticker) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .ticker(ticker)
+                .maximumSize(MAX_TRACKED_USERS)
+                .build();
+    }
+
+    public void beginRequest(Long userId, boolean write) {
+        PRIMARY_ONLY.set(write || userId != null && recentWriters.getIfPresent(userId) != null);
+    }
+
+    /**
+     * Окно отсчитывается от конца изменяющего запроса, когда транзакция уже зафиксирована.
+     */
+    public void endRequest(Long userId, boolean write) {
+        PRIMARY_ONLY.remove();
+        if (write && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isReplicaAllowed() {
+        return !Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.replica;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Подключение к реплике для транзакций только на чтение. Настройки пула - shareit.datasource.replica.hikari.*
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.replica")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    /**
+     * Сколько после изменяющего запроса пользователя его чтения идут в основную базу,
+     * чтобы он не увидел устаревшие данные из отстающей реплики.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
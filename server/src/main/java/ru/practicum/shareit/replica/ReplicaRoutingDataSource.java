@@ -0,0 +1,65 @@
+package ru.practicum.shareit.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Транзакции @Transactional(readOnly = true) получают соединение с реплики, остальные - с основной базы.
+ * Признак readOnly известен только после начала транзакции, поэтому источник оборачивается
+ * в LazyConnectionDataSourceProxy и соединение выбирается при первом запросе.
+ * Счётчики регистрируются через MeterBinder: MeterRegistry сам зависит от DataSource через метрики пулов.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+    static final String METRIC_NAME = "shareit.datasource.route";
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private volatile Counter primaryConnections;
+    private volatile Counter replicaConnections;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        primaryConnections = counter(registry, Route.PRIMARY);
+        replicaConnections = counter(registry, Route.REPLICA);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && readYourWritesTracker.isReplicaAllowed()) {
+            increment(replicaConnections);
+            return Route.REPLICA;
+        }
+        increment(primaryConnections);
+        return Route.PRIMARY;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, Route route) {
+        return Counter.builder(METRIC_NAME)
+                .description("Соединения, выданные основной базой и репликой")
+                .tag("route", route.name().toLowerCase())
+                .register(registry);
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import ru.practicum.shareit.item.Item;
 
 import javax.persistence.*;
@@ -15,7 +16,8 @@ import java.util.List;
 @Table(name = "requests", schema = "public")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "requestor_id")
@@ -24,6 +26,7 @@ public class ItemRequest {
     private String description;
 
     @OneToMany
+    @BatchSize(size = 100)
     @ToString.Exclude
     @JoinColumn(name = "item_id")
     private List<Item> items;
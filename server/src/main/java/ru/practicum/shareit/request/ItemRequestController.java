@@ -2,7 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -37,6 +39,16 @@ public class ItemRequestController {
         return requestService.getAllRequests(userId, pageNum, pageSize);
     }
 
+    @GetMapping(path = "/all", params = "after")
+    public ResponseEntity<List<ItemRequestDto>> getAllRequestsAfter(
+            @RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
+            @RequestParam String after,
+            @RequestParam(name = "size", defaultValue = "10") Integer pageSize) {
+        List<ItemRequestDto> requests = requestService.getAllRequestsAfter(userId, after, pageSize);
+        return PageCursor.withNextCursor(requests, pageSize,
+                request -> PageCursor.encode(request.getCreated(), request.getId()));
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestDto getRequestById(@RequestHeader(value = USER_ID_REQUEST_HEADER) Long userId,
                                   @PathVariable Long requestId) {
@@ -4,6 +4,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>, ItemRequestRepositoryCustom {
@@ -12,4 +13,16 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>,
 
     @Query("select i from ItemRequest i where i.requestorId = ?1 order by i.created desc")
     List<ItemRequest> findAllByUserId(Long userId, Pageable pageable);
+
+    @Query("select i from ItemRequest i where i.requestorId <> ?1 order by i.created desc, i.id desc")
+    List<ItemRequest> findAllOfOtherUsers(Long userId);
+
+    @Query("select i from ItemRequest i where i.requestorId <> ?1 order by i.created desc, i.id desc")
+    List<ItemRequest> findAllOfOtherUsers(Long userId, Pageable pageable);
+
+    @Query("select i from ItemRequest i where i.requestorId <> ?1 " +
+            "and (i.created < ?2 or i.created = ?2 and i.id < ?3) " +
+            "order by i.created desc, i.id desc")
+    List<ItemRequest> findAllOfOtherUsersBefore(Long userId, LocalDateTime beforeCreated, Long beforeId,
+                                                Pageable pageable);
 }
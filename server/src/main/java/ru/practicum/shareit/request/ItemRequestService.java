@@ -5,12 +5,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.WrongDataException;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoMapper;
-import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserExistenceChecker;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,20 +21,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemRequestService {
     private final ItemRequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
     private final ItemRequestDtoMapper requestDtoMapper;
 
     @Autowired
     public ItemRequestService(ItemRequestRepository requestRepository,
-                              UserRepository userRepository, ItemRequestDtoMapper requestDtoMapper) {
+                              UserExistenceChecker userExistenceChecker, ItemRequestDtoMapper requestDtoMapper) {
         this.requestRepository = requestRepository;
-        this.userRepository = userRepository;
+        this.userExistenceChecker = userExistenceChecker;
         this.requestDtoMapper = requestDtoMapper;
     }
 
     public ItemRequestDto addItemRequest(Long userId, ItemRequestDto requestDto) {
         validateItemRequestDto(requestDto);
-        User user = getUserIfExists(userId);
+        userExistenceChecker.checkExists(userId);
         requestDto.setRequestorId(userId);
         requestDto.setCreated(LocalDateTime.now().toString());
         ItemRequest request = requestRepository.save(requestDtoMapper.toRequest(requestDto));
@@ -42,42 +43,56 @@ public class ItemRequestService {
     }
 
     public List<ItemRequestDto> getAllRequestsOfUser(Long userId) {
-        User user = getUserIfExists(userId);
+        userExistenceChecker.checkExists(userId);
         return requestRepository.findAllByUserId(userId).stream()
                .map(requestDtoMapper::toDto)
                .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllRequests(Long userId, Integer pageNum, Integer pageSize) {
-        getUserIfExists(userId);
+        userExistenceChecker.checkExists(userId);
         if (pageNum == null || pageSize == null) {
             log.info("Выдача реквестов одним списком");
-            return requestRepository.findAll().stream()
-                    .filter(itemRequest -> !itemRequest.getRequestorId().equals(userId))
+            return requestRepository.findAllOfOtherUsers(userId).stream()
                     .map(requestDtoMapper::toDto)
                     .collect(Collectors.toList());
         }
         validatePagesRequest(pageNum, pageSize);
         Pageable page = PageRequest.of(pageNum, pageSize);
         log.info("Выдача реквестов постранично");
-        return requestRepository.findAll(page).stream()
-                .filter(itemRequest -> !itemRequest.getRequestorId().equals(userId))
+        return requestRepository.findAllOfOtherUsers(userId, page).stream()
+                .map(requestDtoMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllRequestsAfter(Long userId, String after, Integer pageSize) {
+        userExistenceChecker.checkExists(userId);
+        PageCursor.validatePageSize(pageSize);
+        PageCursor cursor = PageCursor.decode(after);
+        Pageable page = PageRequest.of(0, pageSize);
+        log.info("Выдача реквестов после курсора");
+        List<ItemRequest> requests;
+        if (cursor.isFirstPage()) {
+            requests = requestRepository.findAllOfOtherUsers(userId, page);
+        } else {
+            if (cursor.getStart() == null) {
+                throw new WrongDataException("Ошибка: неверно указан курсор страницы");
+            }
+            requests = requestRepository.findAllOfOtherUsersBefore(userId, cursor.getStart(), cursor.getId(), page);
+        }
+        return requests.stream()
                 .map(requestDtoMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        getUserIfExists(userId);
+        userExistenceChecker.checkExists(userId);
         return requestDtoMapper.toDto(requestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос id=" + requestId + "не найден")));
     }
 
-    private User getUserIfExists(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
-        return user;
-    }
-
     private void validatePagesRequest(Integer pageNum, Integer pageSize) {
         if (pageNum < 0 || pageSize <= 0) {
             String message = "Ошибка: неверно указан начальный индекс или размер страницы";
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки учёта SQL-запросов сервера.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql")
+public class SqlProperties {
+    /**
+     * Запросы дольше порога пишутся в лог вместе с параметрами.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(500);
+    /**
+     * Отдавать число запросов к базе в заголовке ответа X-Sql-Statement-Count. Только вне production:
+     * фильтр буферизует каждый ответ, а заголовок раскрывает клиентам число запросов. Включено в профилях ci и test.
+     */
+    private boolean statementCountHeader = false;
+}
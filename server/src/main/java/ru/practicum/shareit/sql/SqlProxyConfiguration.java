@@ -0,0 +1,49 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Все обращения к базе идут через datasource-proxy: он считает запросы для SqlStatementCountFilter
+ * и пишет в лог медленные. Оборачивается только основной бин dataSource, чтобы пулы основной базы
+ * и реплики за маршрутизатором не считали те же запросы повторно.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlProperties.class)
+public class SqlProxyConfiguration {
+    static final String DATA_SOURCE_NAME = "shareit";
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor sqlProxyDataSourcePostProcessor(ObjectProvider<SqlProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource)
+                        || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                long threshold = properties.getObject().getSlowQueryThreshold().toMillis();
+                return ProxyDataSourceBuilder.create(DATA_SOURCE_NAME, (DataSource) bean)
+                        .listener(new SqlStatementListener(threshold))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter(SqlProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(
+                new SqlStatementCountFilter(meterRegistry, properties.isStatementCountHeader()));
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Число запросов к базе за HTTP-запрос: всегда в метрику shareit.sql.statements с тегами method и uri,
+ * а при shareit.sql.statement-count-header=true ещё и в заголовок ответа. Чтобы заголовок успел
+ * попасть в ответ, тело в этом режиме буферизуется.
+ */
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Sql-Statement-Count";
+    static final String METRIC_NAME = "shareit.sql.statements";
+    private static final double[] BUCKETS = {1, 2, 5, 10, 20, 50, 100};
+
+    private final MeterRegistry meterRegistry;
+    private final boolean countHeader;
+
+    public SqlStatementCountFilter(MeterRegistry meterRegistry, boolean countHeader) {
+        this.meterRegistry = meterRegistry;
+        this.countHeader = countHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper bufferedResponse = countHeader ? new ContentCachingResponseWrapper(response)
+                : null;
+        SqlStatementCounter.start();
+        int count;
+        try {
+            chain.doFilter(request, bufferedResponse != null ? bufferedResponse : response);
+        } finally {
+            count = SqlStatementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("Запросы к базе за один HTTP-запрос")
+                    .serviceLevelObjectives(BUCKETS)
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                    .register(meterRegistry)
+                    .record(count);
+        }
+        if (bufferedResponse != null) {
+            bufferedResponse.setIntHeader(HEADER, count);
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+}
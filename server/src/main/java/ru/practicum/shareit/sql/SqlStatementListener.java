@@ -0,0 +1,35 @@
+package ru.practicum.shareit.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+
+import java.util.List;
+
+/**
+ * Считает выполненные запросы и пишет в лог медленные вместе с параметрами.
+ */
+@Slf4j
+class SqlStatementListener implements QueryExecutionListener {
+    private final long slowQueryThresholdMillis;
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    SqlStatementListener(long slowQueryThresholdMillis) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementCounter.increment();
+        if (execInfo.getElapsedTime() >= slowQueryThresholdMillis) {
+            log.warn("Медленный запрос к базе, {} мс: {}", execInfo.getElapsedTime(),
+                    logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false, false));
+        }
+    }
+}
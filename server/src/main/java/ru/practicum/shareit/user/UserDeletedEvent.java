@@ -0,0 +1,11 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+/**
+ * Пользователь удалён вместе со своими вещами.
+ */
+@Value
+public class UserDeletedEvent {
+    Long userId;
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Проверка существования пользователя.
+ * Положительные ответы кешируются в UserRepository.existsById,
+ * а в пределах одного HTTP-запроса пользователь проверяется не более одного раза.
+ */
+@Component
+public class UserExistenceChecker {
+    public static final String USER_EXISTS_CACHE = "userExists";
+    private static final String CHECKED_USERS_ATTRIBUTE = UserExistenceChecker.class.getName() + ".checkedUsers";
+
+    private final UserRepository userRepository;
+
+    public UserExistenceChecker(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public void checkExists(Long userId) {
+        Set<Long> checkedUsers = checkedUsersOfCurrentRequest();
+        if (checkedUsers.contains(userId)) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
+        }
+        checkedUsers.add(userId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> checkedUsersOfCurrentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new HashSet<>();
+        }
+        Set<Long> checkedUsers = (Set<Long>) attributes.getAttribute(CHECKED_USERS_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (checkedUsers == null) {
+            checkedUsers = new HashSet<>();
+            attributes.setAttribute(CHECKED_USERS_ATTRIBUTE, checkedUsers, RequestAttributes.SCOPE_REQUEST);
+        }
+        return checkedUsers;
+    }
+}
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Override
+    @Cacheable(cacheNames = UserExistenceChecker.USER_EXISTS_CACHE, unless = "!#result")
+    boolean existsById(Long userId);
 }
@@ -2,9 +2,13 @@ package ru.practicum.shareit.user;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.WrongDataException;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
 
@@ -18,11 +22,16 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserDtoMapper userDtoMapper;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserService(UserRepository userRepository, UserDtoMapper userDtoMapper) {
+    public UserService(UserRepository userRepository, UserDtoMapper userDtoMapper, ItemRepository itemRepository,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userDtoMapper = userDtoMapper;
+        this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<UserDto> getUsers() {
@@ -46,19 +55,31 @@ public class UserService {
         return userDtoMapper.mapUser(user);
     }
 
+    /**
+     * Имя и email арендатора входят в представление вещи для владельца, поэтому версии
+     * забронированных им вещей увеличиваются в той же транзакции и только если они изменились.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = UserExistenceChecker.USER_EXISTS_CACHE, key = "#userId")
     public UserDto updateUser(Long userId, UserDto userDto) {
         Optional<User> userOptional = userRepository.findById(userId);
         if (userOptional.isEmpty()) {
             throw new NotFoundException("Пользователь с id=" + userId + " не найден");
         }
         User user = userOptional.get();
-        if (userDto.getName() != null) {
+        boolean changed = false;
+        if (userDto.getName() != null && !userDto.getName().equals(user.getName())) {
             user.setName(userDto.getName());
+            changed = true;
         }
-        if (userDto.getEmail() != null) {
+        if (userDto.getEmail() != null && !userDto.getEmail().equals(user.getEmail())) {
             user.setEmail(userDto.getEmail());
+            changed = true;
         }
         user = userRepository.save(user);
+        if (changed) {
+            itemRepository.incrementVersionOfItemsBookedBy(userId);
+        }
         return userDtoMapper.mapUser(user);
     }
 
@@ -76,11 +97,13 @@ public class UserService {
         }
     }
 
+    @CacheEvict(cacheNames = UserExistenceChecker.USER_EXISTS_CACHE, key = "#userId")
     public UserDto deleteUserById(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(
                 () -> new NotFoundException("Пользователь с id=" + userId + " не найден")
         );
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
         return userDtoMapper.mapUser(user);
     }
 }
@@ -0,0 +1,58 @@
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE comments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+	id BIGINT NOT NULL,
+	name VARCHAR(255) NOT NULL,
+	email VARCHAR(512) NOT NULL,
+	CONSTRAINT pk_user PRIMARY KEY (id),
+	CONSTRAINT uq_user_email UNIQUE (email)
+);
+
+CREATE TABLE requests (
+	id BIGINT NOT NULL,
+	description VARCHAR(1024) NOT NULL,
+	requestor_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+	created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+	CONSTRAINT pk_request PRIMARY KEY (id)
+);
+
+-- item_id - колонка связи ItemRequest.items, request_id - запрос, указанный при создании вещи
+CREATE TABLE items (
+	id BIGINT NOT NULL,
+	name VARCHAR(255) NOT NULL,
+	description VARCHAR NOT NULL,
+	available BOOLEAN NOT NULL,
+	owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+	request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE,
+	item_id BIGINT REFERENCES requests(id) ON DELETE SET NULL,
+	version BIGINT NOT NULL DEFAULT 0,
+	CONSTRAINT pk_item PRIMARY KEY (id)
+);
+
+CREATE TABLE bookings (
+	id BIGINT NOT NULL,
+	start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+	end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+	item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+	booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+	status VARCHAR(16) NOT NULL,
+	version BIGINT NOT NULL DEFAULT 0,
+	CONSTRAINT pk_booking PRIMARY KEY (id)
+);
+
+CREATE INDEX ix_bookings_item_start_end ON bookings (item_id, start_date, end_date);
+CREATE INDEX ix_bookings_booker_item_start ON bookings (booker_id, item_id, start_date);
+
+CREATE TABLE comments (
+	id BIGINT NOT NULL,
+	text VARCHAR(1024) NOT NULL,
+	item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+	author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+	author_name VARCHAR(255) NOT NULL,
+	created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+	CONSTRAINT pk_comment PRIMARY KEY (id)
+);
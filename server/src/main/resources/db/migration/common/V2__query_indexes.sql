@@ -0,0 +1,17 @@
+-- аренды пользователя: фильтр по арендатору, сортировка и курсор по (start_date, id) по убыванию
+CREATE INDEX ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+-- последняя и следующая аренды вещи и проверки пересечений с фильтром по статусу
+CREATE INDEX ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- вещи владельца по возрастанию id, в том числе после курсора
+CREATE INDEX ix_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX ix_items_request_id ON items (request_id);
+CREATE INDEX ix_items_item_id ON items (item_id);
+
+-- последние комментарии вещей
+CREATE INDEX ix_comments_item_created ON comments (item_id, created DESC, id DESC);
+
+-- запросы пользователя по убыванию даты создания
+CREATE INDEX ix_requests_requestor_created ON requests (requestor_id, created DESC);
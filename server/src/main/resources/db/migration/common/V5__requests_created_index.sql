@@ -0,0 +1,2 @@
+-- чужие запросы по убыванию (created, id), в том числе после курсора
+CREATE INDEX ix_requests_created_id ON requests (created DESC, id DESC);
@@ -0,0 +1,3 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX ix_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX ix_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops);
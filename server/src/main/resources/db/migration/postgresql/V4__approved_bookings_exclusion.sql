@@ -0,0 +1,6 @@
+-- подтверждённые аренды одной вещи не пересекаются даже при одновременных подтверждениях;
+-- BookingService проверяет то же самое заранее и отвечает 409, ограничение - последняя защита
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_approved_overlap
+	EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+	WHERE (status = 'APPROVED');
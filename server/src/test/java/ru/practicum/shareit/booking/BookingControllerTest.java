@@ -9,11 +9,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.etag.ETagged;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -21,12 +24,14 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.Predicate;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -108,6 +113,23 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class));
     }
 
+    @Test
+    void addBookings() throws Exception {
+        when(bookingService.addBookings(anyLong(), anyList())).thenReturn(List.of(
+                new BookingBatchResultDto(0, bookingDto, null),
+                new BookingBatchResultDto(1, null, "Вещь id=1 уже забронирована на указанный период")));
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(List.of(bookingShortDto, bookingShortDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].error", is("Вещь id=1 уже забронирована на указанный период")));
+    }
+
     @Test
     void updateBooking() throws Exception {
         bookingDto.setStatus(BookingStatus.APPROVED.toString());
@@ -141,6 +163,22 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
     }
 
+    @Test
+    void getBookingsOfUserAfterCursor() throws Exception {
+        when(bookingService.getBookingsOfUserAfter(anyLong(), eq("ALL"), eq(""), eq(1))).thenReturn(List.of(bookingDto));
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", "ALL")
+                        .param("after", "")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        PageCursor.encode(bookingDto.getStart(), bookingDto.getId())))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
     @Test
     void getBookingsOfOwnersItems() throws Exception {
         when(bookingService.getBookingsOfOwnerItems(anyLong(), eq("ALL"), eq(1), eq(10))).thenReturn(List.of(bookingDto));
@@ -160,7 +198,7 @@ class BookingControllerTest {
 
     @Test
     void getBooking() throws Exception {
-        when(bookingService.getBooking(eq(1L), eq(1L))).thenReturn(bookingDto);
+        when(bookingService.getBooking(eq(1L), eq(1L), any())).thenReturn(new ETagged<>("\"1\"", bookingDto));
         mockMvc.perform(get("/bookings/{bookingId}", bookingDto.getId())
                         .header("X-Sharer-User-Id", 1)
                         .content(mapper.writeValueAsString(bookingDto))
@@ -171,4 +209,17 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingNotModified() throws Exception {
+        when(bookingService.getBooking(eq(1L), eq(1L), any())).thenAnswer(invocation -> {
+            Predicate<String> notModified = invocation.getArgument(2);
+            return new ETagged<>("\"1\"", notModified.test("\"1\"") ? null : bookingDto);
+        });
+        mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class BookingRepositoryTest {
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item1;
+    private Item item2;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@email.ru");
+        owner = userRepository.save(owner);
+
+        booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@email.ru");
+        booker = userRepository.save(booker);
+
+        item1 = saveItem("item 1");
+        item2 = saveItem("item 2");
+    }
+
+    @Test
+    void findLastAndNextBookingsForItems() {
+        saveBooking(item1, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        Booking last = saveBooking(item1, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        saveBooking(item1, now.minusDays(1), now.minusHours(1), BookingStatus.REJECTED);
+        Booking next = saveBooking(item1, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        saveBooking(item1, now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+        Booking nextOfItem2 = saveBooking(item2, now.plusDays(5), now.plusDays(6), BookingStatus.APPROVED);
+
+        List<Long> ids = bookingRepository.findLastAndNextBookingsForItems(
+                        List.of(item1.getId(), item2.getId()), now).stream()
+                .map(Booking::getId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(last.getId(), next.getId(), nextOfItem2.getId()), ids);
+    }
+
+    @Test
+    void findLastAndNextBookingsForItemsBreaksTiesById() {
+        saveBooking(item1, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+        Booking last = saveBooking(item1, now.minusDays(2), now.minusDays(1), BookingStatus.WAITING);
+        Booking next = saveBooking(item1, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        saveBooking(item1, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+
+        List<Long> ids = bookingRepository.findLastAndNextBookingsForItems(List.of(item1.getId()), now).stream()
+                .map(Booking::getId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(last.getId(), next.getId()), ids);
+    }
+
+    @Test
+    void existsOverlappingBooking() {
+        Booking approved = saveBooking(item1, now.plusDays(1), now.plusDays(3), BookingStatus.APPROVED);
+        saveBooking(item1, now.plusDays(5), now.plusDays(6), BookingStatus.REJECTED);
+
+        assertTrue(bookingRepository.existsOverlappingBooking(item1.getId(), now.plusDays(2), now.plusDays(4)));
+        assertFalse(bookingRepository.existsOverlappingBooking(item1.getId(), now.plusDays(3), now.plusDays(4)));
+        assertFalse(bookingRepository.existsOverlappingBooking(item1.getId(), now.plusDays(5), now.plusDays(6)));
+        assertFalse(bookingRepository.existsOverlappingBooking(item2.getId(), now.plusDays(2), now.plusDays(4)));
+        assertFalse(bookingRepository.existsApprovedOverlappingBooking(item1.getId(), approved.getId(),
+                approved.getStart(), approved.getEnd()));
+    }
+
+    @Test
+    void existsStartedBookingOfItem() {
+        saveBooking(item1, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+        saveBooking(item2, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+
+        assertTrue(bookingRepository.existsStartedBookingOfItem(booker.getId(), item1.getId(), now));
+        assertFalse(bookingRepository.existsStartedBookingOfItem(booker.getId(), item2.getId(), now));
+        assertFalse(bookingRepository.existsStartedBookingOfItem(owner.getId(), item1.getId(), now));
+    }
+
+    @Test
+    void findAllByBookerAfter() {
+        Booking first = saveBooking(item1, now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+        Booking second = saveBooking(item2, now.plusDays(3), now.plusDays(4), BookingStatus.WAITING);
+        Booking third = saveBooking(item1, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+
+        List<Booking> firstPage = bookingRepository.findAllByBookerAfter(booker.getId(), BookingState.ALL,
+                PageCursor.decode(""), 2);
+        assertEquals(List.of(second.getId(), first.getId()),
+                firstPage.stream().map(Booking::getId).collect(Collectors.toList()));
+
+        Booking last = firstPage.get(1);
+        List<Booking> secondPage = bookingRepository.findAllByBookerAfter(booker.getId(), BookingState.ALL,
+                PageCursor.decode(PageCursor.encode(last.getStart().toString(), last.getId())), 2);
+        assertEquals(List.of(third.getId()), secondPage.stream().map(Booking::getId).collect(Collectors.toList()));
+
+        List<Booking> waiting = bookingRepository.findAllByItemOwnerAfter(owner.getId(), BookingState.WAITING,
+                PageCursor.decode(""), 10);
+        assertEquals(List.of(second.getId(), third.getId()), waiting.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    private Item saveItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name + " description");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        return itemRepository.save(item);
+    }
+
+    private Booking saveBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.sql.QueryCountTestSupport;
+import ru.practicum.shareit.sql.SqlStatementCounter;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@Import({BookingService.class, BookingDtoMapper.class, UserExistenceChecker.class})
+class BookingServiceQueryCountTest extends QueryCountTestSupport {
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    private User owner;
+    private User booker;
+    private final List<Item> items = new ArrayList<>();
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        owner = saveUser("owner");
+        booker = saveUser("booker");
+        for (int i = 0; i < 3; i++) {
+            Item item = new Item();
+            item.setName("item " + i);
+            item.setDescription("description " + i);
+            item.setAvailable(true);
+            item.setOwnerId(owner.getId());
+            item = itemRepository.save(item);
+            items.add(item);
+            for (int j = 1; j <= 2; j++) {
+                Booking booking = new Booking();
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setStart(now.plusDays(j * 10L + i));
+                booking.setEnd(now.plusDays(j * 10L + i + 1));
+                booking.setStatus(BookingStatus.WAITING);
+                bookingRepository.save(booking);
+            }
+        }
+        startCounting();
+    }
+
+    @Test
+    void getBookingsOfOwnerItemsUsesSingleBookingQuery() {
+        List<BookingDto> bookings = bookingService.getBookingsOfOwnerItems(owner.getId(), "FUTURE", null, null);
+
+        assertEquals(6, bookings.size());
+        assertEquals(2, SqlStatementCounter.current());
+    }
+
+    @Test
+    void getBookingsOfUserUsesSingleBookingQuery() {
+        List<BookingDto> bookings = bookingService.getBookingsOfUser(booker.getId(), "WAITING", 2, 2);
+
+        assertEquals(2, bookings.size());
+        assertEquals(2, SqlStatementCounter.current());
+    }
+
+    @Test
+    void addBookingsChecksWholeBatchWithFixedNumberOfQueries() {
+        List<BookingShortDto> batch = List.of(
+                bookingOf(items.get(0).getId(), now.plusDays(5), now.plusDays(6)),
+                bookingOf(items.get(0).getId(), now.plusDays(10), now.plusDays(12)),
+                bookingOf(items.get(0).getId(), now.plusDays(5), now.plusDays(7)),
+                bookingOf(999L, now.plusDays(1), now.plusDays(2)),
+                bookingOf(items.get(1).getId(), now.plusDays(1), now.plusDays(2)));
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(booker.getId(), batch);
+        entityManager.flush();
+
+        // пользователь, вещи, пересекающиеся аренды, версии вещей и одна вставка пакетом:
+        // id берутся из блока последовательности, выделенного ещё при подготовке данных
+        assertEquals(5, SqlStatementCounter.current());
+        assertEquals(5, results.size());
+        assertNotNull(results.get(0).getBooking().getId());
+        assertEquals("Вещь id=" + items.get(0).getId() + " уже забронирована на указанный период",
+                results.get(1).getError());
+        assertEquals("Вещь id=" + items.get(0).getId() + " уже забронирована на указанный период",
+                results.get(2).getError());
+        assertEquals("Вешь с id=999 не найдена!", results.get(3).getError());
+        assertNotNull(results.get(4).getBooking().getId());
+        assertEquals(8, bookingRepository.count());
+    }
+
+    @Test
+    void addBookingsRejectsNullEntryAndCreatesTheRest() {
+        List<BookingShortDto> batch = Arrays.asList(
+                null,
+                bookingOf(items.get(1).getId(), now.plusDays(1), now.plusDays(2)));
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(booker.getId(), batch);
+
+        assertEquals(2, results.size());
+        assertEquals(0, results.get(0).getIndex());
+        assertNull(results.get(0).getBooking());
+        assertEquals("Ошибка валидации бронирования: пустая заявка на аренду", results.get(0).getError());
+        assertNotNull(results.get(1).getBooking().getId());
+    }
+
+    private BookingShortDto bookingOf(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingShortDto bookingShortDto = new BookingShortDto();
+        bookingShortDto.setItemId(itemId);
+        bookingShortDto.setStart(start.toString());
+        bookingShortDto.setEnd(end.toString());
+        return bookingShortDto;
+    }
+}
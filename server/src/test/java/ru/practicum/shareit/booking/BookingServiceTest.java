@@ -1,24 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoMapper;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.WrongDataException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -42,6 +50,9 @@ class BookingServiceTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    UserExistenceChecker userExistenceChecker;
+
     @Mock
     ItemRepository itemRepository;
 
@@ -126,17 +137,72 @@ class BookingServiceTest {
     @Test
     void addNewBooking() {
         when(userRepository.findById(eq(2L))).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(eq(1L))).thenReturn(Optional.of(item1));
+        when(itemRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(item1));
         when(bookingDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(bookingDtoMapper.toBooking(any(), any(), any())).thenReturn(futureBooking);
         BookingDto testBookingDto = bookingService.addBooking(2L, futureBookingShortDto);
         assertEquals(futureBooking.getId(), testBookingDto.getId());
     }
 
+    @Test
+    void addNewBookingOverlapping() {
+        when(userRepository.findById(eq(2L))).thenReturn(Optional.of(booker));
+        when(itemRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(item1));
+        when(bookingDtoMapper.toBooking(any(), any(), any())).thenReturn(futureBooking);
+        when(bookingRepository.existsOverlappingBooking(eq(1L), any(), any())).thenReturn(true);
+        Exception exception = assertThrows(ConflictException.class,
+                () -> bookingService.addBooking(2L, futureBookingShortDto));
+        assertEquals("Вещь id=1 уже забронирована на указанный период", exception.getMessage());
+    }
+
+    @Test
+    void approveBookingOverlappingApproved() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(futureBooking));
+        when(bookingRepository.existsApprovedOverlappingBooking(eq(1L), eq(1L), any(), any())).thenReturn(true);
+        Exception exception = assertThrows(ConflictException.class,
+                () -> bookingService.updateBooking(1L, 1L, true));
+        assertEquals("Вещь id=1 уже сдана в аренду на указанный период", exception.getMessage());
+    }
+
+    @Test
+    void approveBookingConcurrentlyOverlappingApproved() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(futureBooking));
+        SQLException exclusionViolation = new SQLException("ERROR: conflicting key value violates exclusion "
+                + "constraint \"" + BookingService.APPROVED_OVERLAP_CONSTRAINT + "\"", "23P01");
+        when(bookingRepository.save(any())).thenThrow(new DataIntegrityViolationException("could not execute "
+                + "statement", new ConstraintViolationException("could not execute statement", exclusionViolation,
+                null)));
+        Exception exception = assertThrows(ConflictException.class,
+                () -> bookingService.updateBooking(1L, 1L, true));
+        assertEquals("Вещь id=1 уже сдана в аренду на указанный период", exception.getMessage());
+    }
+
+    @Test
+    void approveBookingChangedConcurrently() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(futureBooking));
+        when(bookingRepository.save(any())).thenThrow(
+                new ObjectOptimisticLockingFailureException(Booking.class, futureBooking.getId()));
+        Exception exception = assertThrows(ConflictException.class,
+                () -> bookingService.updateBooking(1L, 1L, true));
+        assertEquals("Статус аренды id=1 уже изменён другим запросом", exception.getMessage());
+    }
+
+    @Test
+    void approveBookingOtherIntegrityViolationIsNotConflict() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(futureBooking));
+        when(bookingRepository.save(any())).thenThrow(new DataIntegrityViolationException("could not execute "
+                + "statement", new SQLException("NULL not allowed for column \"STATUS\"", "23502")));
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.updateBooking(1L, 1L, true));
+    }
+
     @Test
     void addNewBookingWhetItemIsUnavailable() {
         when(userRepository.findById(eq(2L))).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(eq(1L))).thenReturn(Optional.of(item1));
+        when(itemRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(item1));
         item1.setAvailable(false);
         Exception exception = assertThrows(
                 WrongDataException.class,
@@ -160,7 +226,7 @@ class BookingServiceTest {
     @Test
     void addBookingWrongDate() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item1));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item1));
         when(bookingRepository.save(any())).then(Mockito.CALLS_REAL_METHODS);
         when(bookingDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(bookingDtoMapper.toBooking(any(), any(), any())).thenReturn(currentBooking);
@@ -177,7 +243,7 @@ class BookingServiceTest {
     @Test
     void addBookingFromOwner() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item1));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item1));
         when(bookingRepository.save(any())).then(Mockito.CALLS_REAL_METHODS);
         when(bookingDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(bookingDtoMapper.toBooking(any(), any(), any())).thenReturn(futureBooking);
@@ -225,7 +291,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateNullWithoutPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllByUserId(any())).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.ALL), eq(Pageable.unpaged()))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testAllBookings = bookingService.getBookingsOfUser(owner.getId(), null, 1, null);
         assertEquals(pastBooking.getId(), testAllBookings.get(0).getId());
@@ -235,7 +301,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateAllWithoutPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllByUserId(any())).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.ALL), eq(Pageable.unpaged()))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testAllBookings = bookingService.getBookingsOfUser(owner.getId(), "ALL", null, 10);
         assertEquals(pastBooking.getId(), testAllBookings.get(0).getId());
@@ -245,7 +311,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStatePastWithoutPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllPastByUserId(any())).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.PAST), eq(Pageable.unpaged()))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testPastBookings = bookingService.getBookingsOfUser(owner.getId(), "PAST", null, null);
         assertEquals(pastBooking.getId(), testPastBookings.get(0).getId());
@@ -255,7 +321,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateRejectedWithoutPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllRejectedByUserId(any())).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.REJECTED), eq(Pageable.unpaged()))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testRejectedBookings = bookingService.getBookingsOfUser(owner.getId(), "REJECTED", null, null);
         assertEquals(pastBooking.getId(), testRejectedBookings.get(0).getId());
@@ -265,7 +331,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateFutureWithoutPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllFutureByUserId(any())).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.FUTURE), eq(Pageable.unpaged()))).thenReturn(List.of(futureBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         futureBooking.setStatus(BookingStatus.APPROVED);
         List<BookingDto> testFutureBookings = bookingService.getBookingsOfUser(owner.getId(), "FUTURE", null, null);
@@ -276,7 +342,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateCurrentWithoutPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllCurrentByUserId(any())).thenReturn(List.of(currentBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.CURRENT), eq(Pageable.unpaged()))).thenReturn(List.of(currentBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testCurrentBookings = bookingService.getBookingsOfUser(owner.getId(), "CURRENT", null, null);
         assertEquals(currentBooking.getId(), testCurrentBookings.get(0).getId());
@@ -286,7 +352,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateWaitingWithoutPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllWaitingByUserId(any())).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.WAITING), eq(Pageable.unpaged()))).thenReturn(List.of(futureBooking));
         when(bookingDtoMapper.toDto(any())).thenReturn(futureBookingDto);
         List<BookingDto> testWaitingBookings = bookingService.getBookingsOfUser(owner.getId(), "WAITING", null, null);
         assertEquals(futureBooking.getId(), testWaitingBookings.get(0).getId());
@@ -296,7 +362,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateNullWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllByUserId(any(), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.ALL), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testAllBookingsPaged = bookingService.getBookingsOfUser(owner.getId(), null, 1, 2);
         assertEquals(pastBooking.getId(), testAllBookingsPaged.get(0).getId());
@@ -306,7 +372,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateAllWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllByUserId(any(), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.ALL), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testAllBookingsPaged = bookingService.getBookingsOfUser(owner.getId(), "ALL", 1, 2);
         assertEquals(pastBooking.getId(), testAllBookingsPaged.get(0).getId());
@@ -316,7 +382,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStatePastWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllPastByUserId(any(), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.PAST), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testPastBookingsPaged = bookingService.getBookingsOfUser(owner.getId(), "PAST", 1, 2);
         assertEquals(pastBooking.getId(), testPastBookingsPaged.get(0).getId());
@@ -326,7 +392,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateRejectedWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllRejectedByUserId(any(), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.REJECTED), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testRejectedBookingsPaged = bookingService.getBookingsOfUser(owner.getId(), "REJECTED", 1, 2);
         assertEquals(pastBooking.getId(), testRejectedBookingsPaged.get(0).getId());
@@ -336,7 +402,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateFutureWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllFutureByUserId(any(), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.FUTURE), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(futureBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         futureBooking.setStatus(BookingStatus.APPROVED);
         List<BookingDto> testFutureBookingsPaged = bookingService.getBookingsOfUser(owner.getId(), "FUTURE", 1, 2);
@@ -347,7 +413,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateCurrentWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllCurrentByUserId(any(), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(currentBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.CURRENT), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(currentBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testCurrentBookingsPaged = bookingService.getBookingsOfUser(owner.getId(), "CURRENT", 1, 2);
         assertEquals(currentBooking.getId(), testCurrentBookingsPaged.get(0).getId());
@@ -357,7 +423,7 @@ class BookingServiceTest {
     void getBookingsOfUserWitStateWaitingWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllWaitingByUserId(any(), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findAllByBooker(any(), eq(BookingState.WAITING), eq(PageRequest.of(1 / 2, 2)))).thenReturn(List.of(futureBooking));
         when(bookingDtoMapper.toDto(any())).thenReturn(futureBookingDto);
         List<BookingDto> testWaitingBookingsPaged = bookingService.getBookingsOfUser(owner.getId(), "WAITING", 1, 2);
         assertEquals(futureBooking.getId(), testWaitingBookingsPaged.get(0).getId());
@@ -390,8 +456,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsOfOwnerItems() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllBookingsForItems(any())).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.ALL), eq(Pageable.unpaged()))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testAllBookings = bookingService.getBookingsOfOwnerItems(owner.getId(), "ALL", null, null);
         assertEquals(pastBooking.getId(), testAllBookings.get(0).getId());
@@ -400,8 +465,7 @@ class BookingServiceTest {
     @Test
     void getPastBookingsOfOwnerItems() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findPastBookingsForItems(any())).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.PAST), eq(Pageable.unpaged()))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testPastBookings = bookingService.getBookingsOfOwnerItems(owner.getId(), "PAST", null, null);
         assertEquals(pastBooking.getId(), testPastBookings.get(0).getId());
@@ -410,8 +474,7 @@ class BookingServiceTest {
     @Test
     void getRejectedBookingsOfOwnerItems() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findRejectedBookingsForItems(any())).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.REJECTED), eq(Pageable.unpaged()))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testRejectedBookings = bookingService.getBookingsOfOwnerItems(owner.getId(), "REJECTED", null, null);
         assertEquals(pastBooking.getId(), testRejectedBookings.get(0).getId());
@@ -420,8 +483,7 @@ class BookingServiceTest {
     @Test
     void getFutureBookingsOfOwnerItems() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findFutureBookingsForItems(any())).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.FUTURE), eq(Pageable.unpaged()))).thenReturn(List.of(futureBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         futureBooking.setStatus(BookingStatus.APPROVED);
         List<BookingDto> testFutureBookings = bookingService.getBookingsOfOwnerItems(owner.getId(), "FUTURE", null, null);
@@ -431,8 +493,7 @@ class BookingServiceTest {
     @Test
     void getCurrentBookingsOfOwnerItems() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findCurrentBookingsForItems(any())).thenReturn(List.of(currentBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.CURRENT), eq(Pageable.unpaged()))).thenReturn(List.of(currentBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testCurrentBookings = bookingService.getBookingsOfOwnerItems(owner.getId(), "CURRENT", null, null);
         assertEquals(currentBooking.getId(), testCurrentBookings.get(0).getId());
@@ -441,8 +502,7 @@ class BookingServiceTest {
     @Test
     void getWaitingBookingsOfOwnerItems() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findWaititngBookingsForItems(any())).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.WAITING), eq(Pageable.unpaged()))).thenReturn(List.of(futureBooking));
         when(bookingDtoMapper.toDto(any())).thenReturn(futureBookingDto);
         List<BookingDto> testWaitingBookings = bookingService.getBookingsOfOwnerItems(owner.getId(), "WAITING", null, null);
         assertEquals(futureBooking.getId(), testWaitingBookings.get(0).getId());
@@ -451,8 +511,7 @@ class BookingServiceTest {
     @Test
     void getAllBookingsOfOwnerItemsWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findAllBookingsForItems(any(), eq(PageRequest.of(1, 2)))).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.ALL), eq(PageRequest.of(1, 2)))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testAllBookingsPaged = bookingService.getBookingsOfOwnerItems(owner.getId(), "ALL", 1, 2);
         assertEquals(pastBooking.getId(), testAllBookingsPaged.get(0).getId());
@@ -461,8 +520,7 @@ class BookingServiceTest {
     @Test
     void getPastBookingsOfOwnerItemsWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findPastBookingsForItems(any(), eq(PageRequest.of(1, 2)))).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.PAST), eq(PageRequest.of(1, 2)))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testPastBookingsPaged = bookingService.getBookingsOfOwnerItems(owner.getId(), "PAST", 1, 2);
         assertEquals(pastBooking.getId(), testPastBookingsPaged.get(0).getId());
@@ -471,8 +529,7 @@ class BookingServiceTest {
     @Test
     void getRefectedBookingsOfOwnerItemsWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findRejectedBookingsForItems(any(), eq(PageRequest.of(1, 2)))).thenReturn(List.of(pastBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.REJECTED), eq(PageRequest.of(1, 2)))).thenReturn(List.of(pastBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testRejectedBookingsPaged = bookingService.getBookingsOfOwnerItems(owner.getId(), "REJECTED", 1, 2);
         assertEquals(pastBooking.getId(), testRejectedBookingsPaged.get(0).getId());
@@ -481,8 +538,7 @@ class BookingServiceTest {
     @Test
     void getFutureBookingsOfOwnerItemsWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findFutureBookingsForItems(any(), eq(PageRequest.of(1, 2)))).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.FUTURE), eq(PageRequest.of(1, 2)))).thenReturn(List.of(futureBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         futureBooking.setStatus(BookingStatus.APPROVED);
         List<BookingDto> testFutureBookingsPaged = bookingService.getBookingsOfOwnerItems(owner.getId(), "FUTURE", 1, 2);
@@ -492,8 +548,7 @@ class BookingServiceTest {
     @Test
     void getCurrentBookingsOfOwnerItemsWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findCurrentBookingsForItems(any(), eq(PageRequest.of(1, 2)))).thenReturn(List.of(currentBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.CURRENT), eq(PageRequest.of(1, 2)))).thenReturn(List.of(currentBooking));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         List<BookingDto> testCurrentBookingsPaged = bookingService.getBookingsOfOwnerItems(owner.getId(), "CURRENT", 1, 2);
         assertEquals(currentBooking.getId(), testCurrentBookingsPaged.get(0).getId());
@@ -502,8 +557,7 @@ class BookingServiceTest {
     @Test
     void getBookingsOfOwnerItems() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
-        when(bookingRepository.findWaititngBookingsForItems(any(), eq(PageRequest.of(1, 2)))).thenReturn(List.of(futureBooking));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.WAITING), eq(PageRequest.of(1, 2)))).thenReturn(List.of(futureBooking));
         when(bookingDtoMapper.toDto(any())).thenReturn(futureBookingDto);
         List<BookingDto> testWaitingBookingsPaged = bookingService.getBookingsOfOwnerItems(owner.getId(), "WAITING", 1, 2);
         assertEquals(futureBooking.getId(), testWaitingBookingsPaged.get(0).getId());
@@ -512,7 +566,6 @@ class BookingServiceTest {
     @Test
     void getBookingsOfOwnerItemsWithWrongState() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
         when(bookingDtoMapper.toDto(any())).then(CALLS_REAL_METHODS);
         Exception exceptionNoPagedMethod = assertThrows(WrongDataException.class,
                 () -> bookingService.getBookingsOfOwnerItems(owner.getId(), "UNKNOWN", null, null));
@@ -522,7 +575,6 @@ class BookingServiceTest {
     @Test
     void getBookingsOfOwnerItemsWithWrongStateWithPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
         Exception exceptionPagedMethod = assertThrows(WrongDataException.class,
                 () -> bookingService.getBookingsOfOwnerItems(owner.getId(), "UNKNOWN", 1, 2));
         assertEquals("Unknown state: UNSUPPORTED_STATUS", exceptionPagedMethod.getMessage());
@@ -532,9 +584,19 @@ class BookingServiceTest {
     @Test
     void getBookingsOfOwnerItemsWrongPaging() {
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item1));
         Exception exceptionWrongPage = assertThrows(WrongDataException.class,
                 () -> bookingService.getBookingsOfOwnerItems(owner.getId(), "ALL", 0, 1));
         assertEquals("Ошибка: неверно указан начальный индекс или размер страницы", exceptionWrongPage.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsOfOwnerWithoutItems() {
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(bookingRepository.findAllByItemOwner(any(), eq(BookingState.ALL), eq(Pageable.unpaged())))
+                .thenReturn(List.of());
+        when(itemRepository.existsByOwnerId(owner.getId())).thenReturn(false);
+        Exception exception = assertThrows(NotFoundException.class,
+                () -> bookingService.getBookingsOfOwnerItems(owner.getId(), "ALL", null, null));
+        assertEquals("У пользователя id=" + owner.getId() + " не найдено вещей", exception.getMessage());
+    }
+}
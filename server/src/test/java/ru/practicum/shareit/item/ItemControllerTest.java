@@ -9,18 +9,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.ETagged;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Predicate;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -58,8 +62,8 @@ class ItemControllerTest {
 
     @Test
     void getItems() throws Exception {
-        when(itemService.getItemsByUserId(eq(1L), eq(null), eq(null))).thenReturn(List.of(itemDto));
-        when(itemService.getItemsByUserId(eq(1L), eq(1), eq(10))).thenReturn(List.of(itemDto));
+        when(itemService.getItemsByUserId(eq(1L), eq(null), eq(null), eq(null))).thenReturn(List.of(itemDto));
+        when(itemService.getItemsByUserId(eq(1L), eq(1), eq(10), eq(null))).thenReturn(List.of(itemDto));
         mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1)
                         .content(mapper.writeValueAsString(itemDto))
@@ -85,7 +89,7 @@ class ItemControllerTest {
 
     @Test
     void getItemById() throws Exception {
-        when(itemService.getItemById(eq(1L), eq(1L))).thenReturn(itemDto);
+        when(itemService.getItemById(eq(1L), eq(1L), any())).thenReturn(new ETagged<>("\"1\"", itemDto));
         mockMvc.perform(get("/items/{itemId}", itemDto.getId())
                         .header("X-Sharer-User-Id", 1)
                         .content(mapper.writeValueAsString(itemDto))
@@ -94,14 +98,28 @@ class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id", is(itemDto.getId()), Long.class));
+                .andExpect(jsonPath("$.id", is(itemDto.getId()), Long.class))
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    @Test
+    void getItemByIdNotModified() throws Exception {
+        when(itemService.getItemById(eq(1L), eq(1L), any())).thenAnswer(invocation -> {
+            Predicate<String> notModified = invocation.getArgument(2);
+            return new ETagged<>("\"1\"", notModified.test("\"1\"") ? null : itemDto);
+        });
+        mockMvc.perform(get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
     }
 
     @Test
     void searchItemsByText() throws Exception {
-            when(itemService.searchItemsByText(anyLong(), eq("search1"),eq(null), eq(null)))
+            when(itemService.searchItemsByText(anyLong(), eq("search1"), eq(null), eq(null), eq(null)))
                     .thenReturn(List.of(itemDto));
-            when(itemService.searchItemsByText(eq(1L), eq("search2"), eq(1), eq(10)))
+            when(itemService.searchItemsByText(eq(1L), eq("search2"), eq(1), eq(10), eq(null)))
                     .thenReturn(List.of(itemDto));
             mockMvc.perform(get("/items/search")
                             .header("X-Sharer-User-Id", 1)
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class ItemRepositoryTest {
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@email.ru");
+        owner = userRepository.save(owner);
+    }
+
+    @Test
+    void searchAvailableSkipsUnavailableItems() {
+        Item drill = saveItem("Дрель", "Простая дрель", true);
+        saveItem("Дрель ударная", "Не работает", false);
+        saveItem("Отвертка", "Аккумуляторная дрель", false);
+        Item screwdriver = saveItem("Шуруповерт", "Почти дрель", true);
+
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), ids(itemRepository.searchAvailable("дрель",
+                Pageable.unpaged())));
+        assertEquals(List.of(screwdriver.getId()), ids(itemRepository.searchAvailable("ДРЕЛЬ",
+                PageRequest.of(1, 1))));
+    }
+
+    @Test
+    void findLatestCommentsForItems() {
+        Item drill = saveItem("Дрель", "Простая дрель", true);
+        Item saw = saveItem("Пила", "Ножовка", true);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        saveComment(drill, now.minusDays(2));
+        Comment drillLatest = saveComment(drill, now);
+        Comment drillPrevious = saveComment(drill, now.minusDays(1));
+        Comment sawLatest = saveComment(saw, now.minusHours(1));
+
+        List<Long> itemIds = List.of(drill.getId(), saw.getId());
+        assertEquals(List.of(drillLatest.getId(), sawLatest.getId(), drillPrevious.getId()),
+                commentRepository.findLatestForItems(itemIds, 2).stream()
+                        .map(Comment::getId)
+                        .collect(Collectors.toList()));
+        assertEquals(4, commentRepository.findAllForItems(itemIds).size());
+    }
+
+    @Test
+    void contentVersionIncrementDoesNotConflictWithLoadedItem() {
+        Item drill = saveItem("Дрель", "Простая дрель", true);
+        entityManager.flush();
+        entityManager.clear();
+        Item loaded = itemRepository.findById(drill.getId()).orElseThrow();
+
+        // комментарий или аренда меняют версию, пока владелец изменяет вещь
+        itemRepository.incrementVersion(drill.getId());
+        loaded.setName("Дрель ударная");
+        entityManager.flush();
+        entityManager.clear();
+
+        Item stored = itemRepository.findById(drill.getId()).orElseThrow();
+        assertEquals("Дрель ударная", stored.getName());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    private Comment saveComment(Item item, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setItemId(item.getId());
+        comment.setText("comment");
+        comment.setAuthorId(owner.getId());
+        comment.setAuthorName(owner.getName());
+        comment.setCreated(created);
+        return commentRepository.save(comment);
+    }
+
+    private Item saveItem(String name, String description, boolean available) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwnerId(owner.getId());
+        return itemRepository.save(item);
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
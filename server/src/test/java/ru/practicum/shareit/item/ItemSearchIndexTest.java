@@ -0,0 +1,158 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAll()).thenReturn(List.of(
+                item(3L, "Дрель", "Простая дрель", true, 1L),
+                item(1L, "Шуруповерт", "Почти дрель", true, 2L),
+                item(2L, "Отвертка", "Аккумуляторная дрель", false, 1L)));
+        itemSearchIndex = new ItemSearchIndex(itemRepository, "memory");
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchReturnsAvailableItemsOrderedById() {
+        assertEquals(List.of(1L, 3L), ids(itemSearchIndex.search("ДРЕЛЬ", 0L, 0L, 10)));
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("дрель", 1L, 0L, 10)));
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("дрель", 0L, 1L, 10)));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("шу", 0L, 0L, 10)));
+        assertTrue(itemSearchIndex.search("дрельт", 0L, 0L, 10).isEmpty());
+    }
+
+    @Test
+    void indexReplacesUpdatedItem() {
+        itemSearchIndex.index(item(3L, "Пила", "Ножовка", true, 1L));
+        itemSearchIndex.index(item(2L, "Отвертка", "Аккумуляторная дрель", true, 1L));
+
+        assertEquals(List.of(1L, 2L), ids(itemSearchIndex.search("дрель", 0L, 0L, 10)));
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("пил", 0L, 0L, 10)));
+
+        itemSearchIndex.removeItemsOfOwner(1L);
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрель", 0L, 0L, 10)));
+    }
+
+    @Test
+    void updatesKeepDocumentSlotsAndDeletionsFreeThem() {
+        for (int i = 0; i <= 100; i++) {
+            itemSearchIndex.index(item(3L, "Дрель " + i, "Простая дрель", i % 2 == 0, 1L));
+        }
+        assertEquals(3, itemSearchIndex.documentSlots());
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("дрель 100", 0L, 0L, 10)));
+        assertTrue(itemSearchIndex.search("дрель 99", 0L, 0L, 10).isEmpty());
+
+        itemSearchIndex.removeItemsOfOwner(1L);
+        itemSearchIndex.index(item(4L, "Пила", "Ножовка", true, 2L));
+        itemSearchIndex.index(item(5L, "Топор", "Колун", true, 2L));
+        assertEquals(3, itemSearchIndex.documentSlots());
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрель", 0L, 0L, 10)));
+        assertEquals(List.of(5L), ids(itemSearchIndex.search("колун", 0L, 0L, 10)));
+    }
+
+    @Test
+    void itemWithSmallerIdIsSearchedInIdOrder() {
+        itemSearchIndex.index(item(10L, "Дрель новая", "", true, 2L));
+        itemSearchIndex.index(item(5L, "Дрель старая", "", true, 2L));
+
+        assertEquals(List.of(1L, 3L, 5L, 10L), ids(itemSearchIndex.search("дрель", 0L, 0L, 10)));
+        assertEquals(List.of(5L, 10L), ids(itemSearchIndex.search("дрель", 3L, 0L, 10)));
+        assertEquals(List.of(10L), ids(itemSearchIndex.search("нов", 4L, 0L, 10)));
+    }
+
+    @Test
+    void itemsOutOfIdOrderAreInsertedWithoutFullLoad() {
+        List<Item> items = new ArrayList<>();
+        for (long id = 2; id <= 200; id += 2) {
+            items.add(item(id, "Дрель " + id, "Простая дрель", true, 1L));
+        }
+        when(itemRepository.findAll()).thenReturn(items);
+        itemSearchIndex.rebuild();
+        int loads = itemSearchIndex.loads();
+
+        for (long id = 199; id >= 1; id -= 2) {
+            itemSearchIndex.index(item(id, "Дрель " + id, "Простая дрель", true, 2L));
+        }
+        itemSearchIndex.removeItemsOfOwner(1L);
+        itemSearchIndex.index(item(300L, "Дрель 300", "Простая дрель", true, 2L));
+
+        assertEquals(loads, itemSearchIndex.loads());
+        assertEquals(200, itemSearchIndex.documentSlots());
+        assertEquals(List.of(1L, 3L, 5L), ids(itemSearchIndex.search("дрель", 0L, 0L, 3)));
+        assertEquals(List.of(101L, 103L), ids(itemSearchIndex.search("дрель", 99L, 0L, 2)));
+        assertEquals(List.of(199L, 300L), ids(itemSearchIndex.search("простая дрель", 197L, 0L, 10)));
+        assertEquals(List.of(17L, 171L, 173L, 175L, 177L, 179L), ids(itemSearchIndex.search("дрель 17", 0L, 0L, 10)));
+        assertTrue(itemSearchIndex.search("дрель 200", 0L, 0L, 10).isEmpty());
+    }
+
+    @Test
+    void searchPagesThroughManyItems() {
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            items.add(item(id, "Вещь " + id, id % 3 == 0 ? "Дрель" : "Пила", id % 2 == 0, 1L));
+        }
+        when(itemRepository.findAll()).thenReturn(items);
+        itemSearchIndex.rebuild();
+
+        assertEquals(List.of(6L, 12L, 18L), ids(itemSearchIndex.search("дрель", 0L, 0L, 3)));
+        assertEquals(List.of(24L, 30L), ids(itemSearchIndex.search("дрель", 18L, 0L, 2)));
+        assertEquals(List.of(36L), ids(itemSearchIndex.search("дрель", 0L, 5L, 1)));
+        assertEquals(List.of(996L), ids(itemSearchIndex.search("996", 0L, 0L, 10)));
+        assertEquals(List.of(996L), ids(itemSearchIndex.search("дрель", 990L, 0L, 10)));
+        assertTrue(itemSearchIndex.search("дрель", 996L, 0L, 10).isEmpty());
+    }
+
+    @Test
+    void rebuildReplaysUpdatesMadeWhileReadingItems() {
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            itemSearchIndex.index(item(3L, "Пила", "Ножовка", true, 1L));
+            return List.of(item(3L, "Дрель", "Простая дрель", true, 1L));
+        });
+
+        itemSearchIndex.rebuild();
+
+        assertTrue(itemSearchIndex.search("дрель", 0L, 0L, 10).isEmpty());
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("пила", 0L, 0L, 10)));
+    }
+
+    @Test
+    void disabledIndexIsNotBuilt() {
+        ItemSearchIndex disabled = new ItemSearchIndex(itemRepository, "like");
+        disabled.rebuild();
+        assertTrue(disabled.search("дрель", 0L, 0L, 10).isEmpty());
+    }
+
+    private Item item(Long id, String name, String description, boolean available, Long ownerId) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwnerId(ownerId);
+        return item;
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
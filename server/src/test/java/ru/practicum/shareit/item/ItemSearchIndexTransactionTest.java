@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.item.dto.CommentDtoMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Индекс видит изменение вещи только после фиксации транзакции ItemService.updateItem.
+ */
+@DataJpaTest(properties = "shareit.search.engine=memory")
+@Import({ItemService.class, ItemSearchIndex.class, ItemDtoMapper.class, CommentDtoMapper.class,
+        BookingDtoMapper.class, UserExistenceChecker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemSearchIndexTransactionTest {
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setName("indexed owner");
+        owner.setEmail("indexed.owner@email.ru");
+        owner = userRepository.save(owner);
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Стремянка");
+        itemDto.setDescription("Алюминиевая стремянка");
+        itemDto.setAvailable(true);
+        item = itemRepository.findById(itemService.addItem(owner.getId(), itemDto).getId()).orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(owner.getId());
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void rolledBackUpdateIsNotIndexed() {
+        ItemDto patch = new ItemDto();
+        patch.setName("Лестница");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemService.updateItem(owner.getId(), item.getId(), patch);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(item.getId()), ids(itemSearchIndex.search("стремянка", 0L, 0L, 10)));
+        assertTrue(itemSearchIndex.search("лестница", 0L, 0L, 10).isEmpty());
+    }
+
+    @Test
+    void committedUpdateIsIndexed() {
+        ItemDto patch = new ItemDto();
+        patch.setName("Лестница");
+
+        itemService.updateItem(owner.getId(), item.getId(), patch);
+
+        assertEquals(List.of(item.getId()), ids(itemSearchIndex.search("лестница", 0L, 0L, 10)));
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDtoMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoMapper;
+import ru.practicum.shareit.sql.QueryCountTestSupport;
+import ru.practicum.shareit.sql.SqlStatementCounter;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Import({ItemService.class, ItemSearchIndex.class, ItemDtoMapper.class, CommentDtoMapper.class,
+        BookingDtoMapper.class, UserExistenceChecker.class})
+class ItemServiceQueryCountTest extends QueryCountTestSupport {
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        owner = saveUser("owner");
+        User booker = saveUser("booker");
+        item = new Item();
+        item.setName("item");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        item = itemRepository.save(item);
+        for (int i = -1; i <= 1; i += 2) {
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStart(now.plusDays(i));
+            booking.setEnd(now.plusDays(i).plusHours(1));
+            booking.setStatus(BookingStatus.APPROVED);
+            bookingRepository.save(booking);
+        }
+        Comment comment = new Comment();
+        comment.setItemId(item.getId());
+        comment.setAuthorId(booker.getId());
+        comment.setAuthorName(booker.getName());
+        comment.setText("comment");
+        comment.setCreated(now.minusDays(1));
+        commentRepository.save(comment);
+        startCounting();
+    }
+
+    @Test
+    void updateItemUsesSingleUpdateAndSingleQueryPerEnrichment() {
+        ItemDto patch = new ItemDto();
+        patch.setName("new name");
+
+        ItemDto itemDto = itemService.updateItem(owner.getId(), item.getId(), patch);
+        entityManager.flush();
+
+        // проверка пользователя, UPDATE изменённых полей вместе с версией для ETag, вещь,
+        // комментарии, последняя и следующая аренды вместе с арендатором одним запросом
+        int statements = SqlStatementCounter.current();
+        assertTrue(statements <= 5, "PATCH /items/{itemId}: " + statements + " запросов");
+        assertEquals("new name", itemDto.getName());
+        assertEquals(1, itemDto.getComments().size());
+        assertNotNull(itemDto.getLastBooking());
+        assertNotNull(itemDto.getNextBooking());
+        entityManager.clear();
+        Item updated = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("new name", updated.getName());
+        assertEquals("description", updated.getDescription());
+        assertEquals(1L, updated.getVersion());
+    }
+}
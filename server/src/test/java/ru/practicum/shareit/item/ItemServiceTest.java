@@ -6,13 +6,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoMapper;
+import ru.practicum.shareit.etag.ETagged;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.WrongDataException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -22,6 +25,7 @@ import ru.practicum.shareit.item.dto.ItemDtoMapper;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -31,8 +35,15 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -44,6 +55,9 @@ class ItemServiceTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    UserExistenceChecker userExistenceChecker;
+
     @Mock
     BookingRepository bookingRepository;
 
@@ -62,6 +76,12 @@ class ItemServiceTest {
     @Mock
     CommentDtoMapper commentDtoMapper;
 
+    @Mock
+    ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     ItemService itemService;
 
@@ -175,10 +195,10 @@ class ItemServiceTest {
         when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(List.of(item1, item2));
         when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemDtoMapper.mapToItem(any())).then(Mockito.CALLS_REAL_METHODS);
-        when(bookingRepository.findNextBookingForItem(eq(1L))).thenReturn(Optional.of(nextBooking));
-        when(bookingRepository.findLastBookingForItem(eq(1L))).thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findLastAndNextBookingsForItems(eq(List.of(1L)), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
         when(commentRepository.findAllByItemId(any())).thenReturn(comments);
-        List<ItemDto> itemDtoList = itemService.getItemsByUserId(owner.getId(), null, null);
+        List<ItemDto> itemDtoList = itemService.getItemsByUserId(owner.getId(), null, null, null);
         assertEquals(2, itemDtoList.size());
         assertEquals(item1.getId(), itemDtoList.get(0).getId());
         assertEquals(item2.getDescription(), itemDtoList.get(1).getDescription());
@@ -187,18 +207,84 @@ class ItemServiceTest {
     @Test
     void getItemsByUserIdWithPaging() {
         when(userRepository.findById(any())).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(List.of(item1, item2));
+        when(itemRepository.findAllByOwnerId(anyLong(), eq(PageRequest.of(1, 10)))).thenReturn(List.of(item1, item2));
         when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemDtoMapper.mapToItem(any())).then(Mockito.CALLS_REAL_METHODS);
-        when(bookingRepository.findNextBookingForItem(eq(1L))).thenReturn(Optional.of(nextBooking));
-        when(bookingRepository.findLastBookingForItem(eq(1L))).thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findLastAndNextBookingsForItems(eq(List.of(1L)), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
         when(commentRepository.findAllForItems(any())).thenReturn(comments);
-        List<ItemDto> itemDtoListPageable = itemService.getItemsByUserId(owner.getId(), 1, 10);
+        List<ItemDto> itemDtoListPageable = itemService.getItemsByUserId(owner.getId(), 10, 10, null);
         assertEquals(2, itemDtoListPageable.size());
         assertEquals(item1.getId(), itemDtoListPageable.get(0).getId());
         assertEquals(item2.getDescription(), itemDtoListPageable.get(1).getDescription());
     }
 
+    @Test
+    void getItemsByUserIdTreatsFromAsIndexOfFirstItem() {
+        when(userRepository.findById(any())).thenReturn(Optional.of(owner));
+        when(itemRepository.findAllByOwnerId(anyLong(), eq(PageRequest.of(0, 5)))).thenReturn(List.of(item1));
+        when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
+
+        assertEquals(1, itemService.getItemsByUserId(owner.getId(), null, 5, null).size());
+        assertEquals(1, itemService.getItemsByUserId(owner.getId(), 4, 5, null).size());
+        assertThrows(WrongDataException.class, () -> itemService.getItemsByUserId(owner.getId(), -1, 5, null));
+        assertThrows(WrongDataException.class, () -> itemService.getItemsByUserId(owner.getId(), 0, 0, null));
+    }
+
+    @Test
+    void getItemsByUserIdWithLastAndNextBookings() {
+        when(userRepository.findById(any())).thenReturn(Optional.of(owner));
+        when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(List.of(item1, item2));
+        when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
+        when(bookingDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
+        when(bookingRepository.findLastAndNextBookingsForItems(any(), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
+        List<ItemDto> itemDtoList = itemService.getItemsByUserId(owner.getId(), null, null, null);
+        assertEquals(lastBooking.getId(), itemDtoList.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), itemDtoList.get(0).getNextBooking().getId());
+        assertNull(itemDtoList.get(1).getLastBooking());
+        assertNull(itemDtoList.get(1).getNextBooking());
+    }
+
+    @Test
+    void getItemsByUserIdWithCommentsLimit() {
+        when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(List.of(item1, item2));
+        when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
+        when(commentDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
+        when(commentRepository.findLatestForItems(eq(List.of(item1.getId(), item2.getId())), eq(1)))
+                .thenReturn(List.of(comment2));
+        List<ItemDto> itemDtoList = itemService.getItemsByUserId(owner.getId(), 0, 10, 1);
+        assertEquals(1, itemDtoList.get(0).getComments().size());
+        assertEquals(comment2.getText(), itemDtoList.get(0).getComments().get(0).getText());
+        assertEquals(0, itemDtoList.get(1).getComments().size());
+
+        assertThrows(WrongDataException.class, () -> itemService.getItemsByUserId(owner.getId(), 0, 10, 0));
+    }
+
+    @Test
+    void getItemByIdWithETag() {
+        when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
+        when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
+        when(bookingRepository.findLastAndNextBookingsForItems(eq(List.of(item1.getId())), any()))
+                .thenReturn(List.of(), List.of(lastBooking));
+        when(bookingDtoMapper.toDto(lastBooking)).thenReturn(lastBookingDto);
+        List<String> checkedETags = new ArrayList<>();
+
+        ETagged<ItemDto> ownerView = itemService.getItemById(item1.getId(), owner.getId(), checkedETags::add);
+        ETagged<ItemDto> otherView = itemService.getItemById(item1.getId(), 99L, eTag -> false);
+        assertTrue(ownerView.isNotModified());
+        assertEquals(List.of(ownerView.getETag()), checkedETags);
+        assertNotEquals(ownerView.getETag(), otherView.getETag());
+        assertEquals(item1.getId(), otherView.getBody().getId());
+        assertEquals(otherView.getETag(), itemService.getItemById(item1.getId(), 98L, eTag -> false).getETag());
+        assertNotEquals(ownerView.getETag(), itemService.getItemById(item1.getId(), owner.getId(), eTag -> false)
+                .getETag());
+        verify(commentRepository, times(3)).findAllByItemId(item1.getId());
+
+        item1.setVersion(1L);
+        assertNotEquals(otherView.getETag(), itemService.getItemById(item1.getId(), 99L, eTag -> false).getETag());
+    }
+
     @Test
     void addItem() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
@@ -211,6 +297,7 @@ class ItemServiceTest {
         assertEquals(item1.getId(), testItemDto.getId());
         assertEquals(item1.getDescription(), testItemDto.getDescription());
 
+        doThrow(new NotFoundException("Пользователь с id=99 не найден")).when(userExistenceChecker).checkExists(99L);
         assertThrows(NotFoundException.class, () -> itemService.addItem(99L, itemDto));
 
         itemDto.setName("");
@@ -232,13 +319,16 @@ class ItemServiceTest {
         when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
         when(itemRepository.findById(item2.getId())).thenReturn(Optional.of(item2));
         when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
+        when(bookingDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemDtoMapper.mapToItem(any())).then(Mockito.CALLS_REAL_METHODS);
-        when(bookingRepository.findNextBookingForItem(eq(1L))).thenReturn(Optional.of(nextBooking));
-        when(bookingRepository.findLastBookingForItem(eq(1L))).thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findLastAndNextBookingsForItems(eq(List.of(1L)), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
         when(commentRepository.findAllByItemId(any())).thenReturn(comments);
         ItemDto itemDto1 = itemService.getItemById(item1.getId(), owner.getId());
         ItemDto itemDto2 = itemService.getItemById(item2.getId(), owner.getId());
         assertEquals(item1.getName(), itemDto1.getName());
+        assertEquals(lastBooking.getId(), itemDto1.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), itemDto1.getNextBooking().getId());
         assertEquals(item2.getName(), itemDto2.getName());
 
         Exception exception = assertThrows(NotFoundException.class,
@@ -254,8 +344,8 @@ class ItemServiceTest {
         when(itemRepository.findByIdAndOwnerId(owner.getId(), item2.getId())).thenReturn(Optional.of(item2));
         when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemDtoMapper.mapToItem(any())).then(Mockito.CALLS_REAL_METHODS);
-        when(bookingRepository.findNextBookingForItem(eq(1L))).thenReturn(Optional.of(nextBooking));
-        when(bookingRepository.findLastBookingForItem(eq(1L))).thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findLastAndNextBookingsForItems(eq(List.of(1L)), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
         when(commentRepository.findAllByItemId(any())).thenReturn(comments);
         when(commentRepository.findAllForItems(any())).thenReturn(comments);
         ItemDto itemDto1 = itemService.getItemByIdAndOwnerId(owner.getId(), item1.getId());
@@ -270,43 +360,51 @@ class ItemServiceTest {
     @Test
     void searchItemsByText() {
         when(userRepository.findById(any())).thenReturn(Optional.of(owner));
-        when(itemRepository.findByText(item1.getName())).thenReturn(List.of(item1));
-        when(itemRepository.findByTextPageable(item2.getDescription(), PageRequest.of(1, 10))).thenReturn(List.of(item2));
+        when(itemRepository.searchAvailable(item1.getName(), Pageable.unpaged())).thenReturn(List.of(item1));
+        when(itemRepository.searchAvailable(item2.getDescription(), PageRequest.of(1, 10))).thenReturn(List.of(item2));
         when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemDtoMapper.mapToItem(any())).then(Mockito.CALLS_REAL_METHODS);
-        when(bookingRepository.findNextBookingForItem(eq(1L))).thenReturn(Optional.of(nextBooking));
-        when(bookingRepository.findLastBookingForItem(eq(1L))).thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findLastAndNextBookingsForItems(eq(List.of(1L)), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
         when(commentRepository.findAllByItemId(any())).thenReturn(comments);
         when(commentRepository.findAllForItems(any())).thenReturn(comments);
-        List<ItemDto> itemDtoList1 = itemService.searchItemsByText(owner.getId(), item1.getName(), null, null);
-        List<ItemDto> itemDtoList2 = itemService.searchItemsByText(owner.getId(), item2.getDescription(), 1, 10);
+        List<ItemDto> itemDtoList1 = itemService.searchItemsByText(owner.getId(), item1.getName(), null, null, null);
+        List<ItemDto> itemDtoList2 = itemService.searchItemsByText(owner.getId(), item2.getDescription(), 15, 10, null);
         assertEquals(item1.getDescription(), itemDtoList1.get(0).getDescription());
         assertEquals(item2.getName(), itemDtoList2.get(0).getName());
-        List<ItemDto> itemDtoListWithEmptyTextRequest = itemService.searchItemsByText(owner.getId(), "", null, null);
+        List<ItemDto> itemDtoListWithEmptyTextRequest = itemService.searchItemsByText(owner.getId(), "", null, null, null);
         assertEquals(0, itemDtoListWithEmptyTextRequest.size());
     }
 
     @Test
     void updateItem() {
         when(userRepository.findById(any())).thenReturn(Optional.of(owner));
-        when(itemRepository.findByIdAndOwnerId(owner.getId(), item1.getId())).thenReturn(Optional.of(item1));
-        when(itemRepository.save(any())).thenReturn(item1);
+        when(itemRepository.updateOfOwner(owner.getId(), item1.getId(), itemDto.getName(),
+                itemDto.getDescription(), itemDto.getAvailable())).thenReturn(1);
+        when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
         when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
-        when(itemDtoMapper.mapToItem(any())).then(Mockito.CALLS_REAL_METHODS);
-        when(bookingRepository.findNextBookingForItem(eq(1L))).thenReturn(Optional.of(nextBooking));
-        when(bookingRepository.findLastBookingForItem(eq(1L))).thenReturn(Optional.of(lastBooking));
+        when(bookingDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
+        when(bookingRepository.findLastAndNextBookingsForItems(eq(List.of(1L)), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
         when(commentRepository.findAllByItemId(any())).thenReturn(comments);
-        when(commentRepository.findAllForItems(any())).thenReturn(comments);
         ItemDto testItemDto = itemService.updateItem(owner.getId(), item1.getId(), itemDto);
         assertEquals(item1.getName(), testItemDto.getName());
+        assertEquals(lastBooking.getId(), testItemDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), testItemDto.getNextBooking().getId());
+        verify(itemRepository, never()).save(any());
+        verify(itemRepository, never()).incrementVersion(any());
+        verify(eventPublisher).publishEvent(new ItemSavedEvent(item1));
+    }
+
+    @Test
+    void updateItemOfAnotherOwner() {
+        when(itemRepository.updateOfOwner(any(), any(), any(), any(), any())).thenReturn(0);
+        assertThrows(NotFoundException.class, () -> itemService.updateItem(owner.getId(), item1.getId(), itemDto));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     void addNewComment() {
-        Booking booking = new Booking();
-        booking.setId(1L);
-        booking.setItem(item1);
-        booking.setStart(LocalDateTime.now().minus(1, ChronoUnit.DAYS));
         Comment editedComment = new Comment();
         editedComment.setId(comment1.getId());
         editedComment.setItemId(comment1.getItemId());
@@ -320,13 +418,15 @@ class ItemServiceTest {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
         when(userRepository.findById(eq(404L))).thenReturn(Optional.empty());
         when(itemRepository.findById(item1.getId())).thenReturn(Optional.of(item1));
-        when(bookingRepository.findAllByUserId(owner.getId())).thenReturn(List.of(booking));
-        when(bookingRepository.findAllByUserId(eq(99L))).thenReturn(new ArrayList<>());
+        when(bookingRepository.existsStartedBookingOfItem(eq(owner.getId()), eq(item1.getId()), any()))
+                .thenReturn(true);
+        when(bookingRepository.existsStartedBookingOfItem(eq(99L), eq(item1.getId()), any()))
+                .thenReturn(false);
         when(itemDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemDtoMapper.mapToItem(any())).then(Mockito.CALLS_REAL_METHODS);
         when(commentDtoMapper.mapToDto(any())).then(Mockito.CALLS_REAL_METHODS);
-        when(bookingRepository.findNextBookingForItem(eq(1L))).thenReturn(Optional.of(nextBooking));
-        when(bookingRepository.findLastBookingForItem(eq(1L))).thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findLastAndNextBookingsForItems(eq(List.of(1L)), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
         CommentDto testCommentDto = itemService.addNewComment(owner.getId(), item1.getId(), commentDto);
         assertEquals(editedComment.getText(), testCommentDto.getText());
 
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.exception.WrongDataException;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class MetricsAspectsTest {
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void serviceCallsAreTimedByStateAndPaging() {
+        UserDto userDto = new UserDto();
+        userDto.setName("metrics");
+        userDto.setEmail("metrics@email.ru");
+        Long userId = userService.addUser(userDto).getId();
+
+        bookingService.getBookingsOfUser(userId, "waiting", 1, 10);
+        bookingService.getBookingsOfUser(userId, null, null, null);
+        bookingService.getBookingsOfUserAfter(userId, "PAST", null, 10);
+        assertThrows(WrongDataException.class, () -> bookingService.getBookingsOfUser(userId, "SOON", null, null));
+
+        assertEquals(1, serviceTimerCount("getBookingsOfUser", "WAITING", "paged", "none"));
+        assertEquals(1, serviceTimerCount("getBookingsOfUser", "ALL", "unpaged", "none"));
+        assertEquals(1, serviceTimerCount("getBookingsOfUserAfter", "PAST", "cursor", "none"));
+        assertEquals(1, serviceTimerCount("getBookingsOfUser", "UNSUPPORTED", "unpaged", "WrongDataException"));
+        assertNotNull(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("class", "UserService", "method", "addUser", "state", "none", "paging", "none")
+                .timer());
+    }
+
+    @Test
+    void repositoryCallsAreTimedWithRowCounts() {
+        UserDto userDto = new UserDto();
+        userDto.setName("rows");
+        userDto.setEmail("rows@email.ru");
+        Long userId = userService.addUser(userDto).getId();
+
+        bookingService.getBookingsOfUser(userId, "ALL", 1, 10);
+
+        assertNotNull(meterRegistry.get(RepositoryMetricsAspect.METRIC_NAME)
+                .tags("repository", "BookingRepository", "method", "findAllByBooker", "paging", "paged")
+                .timer());
+        assertEquals(0, meterRegistry.get(RepositoryMetricsAspect.ROWS_METRIC_NAME)
+                .tags("repository", "BookingRepository", "method", "findAllByBooker", "paging", "paged")
+                .summary().totalAmount());
+        assertEquals(1, meterRegistry.get(RepositoryMetricsAspect.ROWS_METRIC_NAME)
+                .tags("repository", "UserRepository", "method", "save", "paging", "none")
+                .summary().max());
+    }
+
+    private long serviceTimerCount(String method, String state, String paging, String exception) {
+        return meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("class", "BookingService", "method", method, "state", state, "paging", paging,
+                        "exception", exception)
+                .timer().count();
+    }
+}
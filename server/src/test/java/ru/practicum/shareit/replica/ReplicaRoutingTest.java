@@ -0,0 +1,144 @@
+package ru.practicum.shareit.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Вторая база H2 играет роль реплики: в ней есть запрос, которого нет в основной базе,
+ * поэтому по ответу видно, откуда читал сервис.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.enabled=true",
+        "shareit.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test",
+        "shareit.datasource.replica.driver-class-name=org.h2.Driver",
+        "shareit.datasource.replica.read-your-writes-window=1m"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final AtomicInteger NUMBER = new AtomicInteger();
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void migrateReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/common").load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void readOnlyListingIsServedByReplica() throws Exception {
+        User reader = saveUserOnBoth();
+        String description = saveRequestOnReplicaOnly(saveUserOnBoth());
+        double replicaConnections = routeCount("replica");
+
+        mockMvc.perform(get("/requests/all").header(USER_ID_HEADER, reader.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(description)));
+
+        assertTrue(routeCount("replica") > replicaConnections);
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimaryWithinWindow() throws Exception {
+        User writer = saveUserOnBoth();
+        User otherReader = saveUserOnBoth();
+        String description = saveRequestOnReplicaOnly(saveUserOnBoth());
+
+        mockMvc.perform(post("/requests")
+                        .header(USER_ID_HEADER, writer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Нужна стремянка\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/requests/all").header(USER_ID_HEADER, writer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString(description))));
+        mockMvc.perform(get("/requests/all").header(USER_ID_HEADER, otherReader.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(description)));
+    }
+
+    @Test
+    void trackerAllowsReplicaAgainAfterWindow() {
+        AtomicLong nanos = new AtomicLong();
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), nanos::get);
+
+        tracker.beginRequest(1L, true);
+        assertFalse(tracker.isReplicaAllowed());
+        tracker.endRequest(1L, true);
+
+        tracker.beginRequest(1L, false);
+        assertFalse(tracker.isReplicaAllowed());
+        tracker.endRequest(1L, false);
+
+        nanos.addAndGet(Duration.ofSeconds(4).toNanos());
+        tracker.beginRequest(1L, false);
+        assertFalse(tracker.isReplicaAllowed());
+        tracker.endRequest(1L, false);
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        tracker.beginRequest(1L, false);
+        assertTrue(tracker.isReplicaAllowed());
+        tracker.endRequest(1L, false);
+        assertTrue(tracker.isReplicaAllowed());
+    }
+
+    private User saveUserOnBoth() {
+        User user = TestUsers.saveNumbered(userRepository, "replica");
+        replica.update("insert into users (id, name, email) values (?, ?, ?)",
+                user.getId(), user.getName(), user.getEmail());
+        return user;
+    }
+
+    private String saveRequestOnReplicaOnly(User requestor) {
+        int number = NUMBER.incrementAndGet();
+        String description = "replica-only request " + number;
+        replica.update("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                1_000_000L + number, description, requestor.getId(), LocalDateTime.now());
+        return description;
+    }
+
+    private double routeCount(String route) {
+        return meterRegistry.get(ReplicaRoutingDataSource.METRIC_NAME).tag("route", route).counter().count();
+    }
+}
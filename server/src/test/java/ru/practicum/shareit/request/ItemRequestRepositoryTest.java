@@ -0,0 +1,65 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class ItemRequestRepositoryTest {
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void cursorPagesFollowOffsetOrder() {
+        User reader = TestUsers.save(userRepository, "reader");
+        User requestor = TestUsers.save(userRepository, "requestor");
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        saveRequest(requestor, now.minusDays(1));
+        saveRequest(requestor, now);
+        saveRequest(requestor, now.minusDays(2));
+        saveRequest(requestor, now);
+        saveRequest(requestor, now.minusDays(1));
+
+        List<Long> offsetOrder = idsOf(itemRequestRepository.findAllOfOtherUsers(reader.getId(), PageRequest.of(0, 10)));
+
+        List<Long> cursorOrder = new ArrayList<>();
+        List<ItemRequest> page = itemRequestRepository.findAllOfOtherUsers(reader.getId(), PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            cursorOrder.addAll(idsOf(page));
+            ItemRequest last = page.get(page.size() - 1);
+            page = itemRequestRepository.findAllOfOtherUsersBefore(reader.getId(), last.getCreated(), last.getId(),
+                    PageRequest.of(0, 2));
+        }
+
+        assertEquals(5, offsetOrder.size());
+        assertEquals(offsetOrder, cursorOrder);
+    }
+
+    private void saveRequest(User requestor, LocalDateTime created) {
+        ItemRequest request = new ItemRequest();
+        request.setDescription("request");
+        request.setRequestorId(requestor.getId());
+        request.setCreated(created);
+        itemRequestRepository.save(request);
+    }
+
+    private static List<Long> idsOf(List<ItemRequest> requests) {
+        return requests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+    }
+}
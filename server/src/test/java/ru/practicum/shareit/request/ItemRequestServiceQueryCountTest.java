@@ -0,0 +1,89 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoMapper;
+import ru.practicum.shareit.sql.QueryCountTestSupport;
+import ru.practicum.shareit.sql.SqlStatementCounter;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Import({ItemRequestService.class, ItemRequestDtoMapper.class, UserExistenceChecker.class})
+class ItemRequestServiceQueryCountTest extends QueryCountTestSupport {
+
+    @Autowired
+    ItemRequestService itemRequestService;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    private User requestor;
+    private User owner;
+    private List<Long> otherRequestIds;
+
+    @BeforeEach
+    void setUp() {
+        requestor = saveUser("requestor");
+        owner = saveUser("owner");
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        otherRequestIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ItemRequest request = saveRequest(owner, created.plusHours(i));
+            otherRequestIds.add(0, request.getId());
+            Item item = new Item();
+            item.setName("item " + i);
+            item.setDescription("description " + i);
+            item.setAvailable(true);
+            item.setOwnerId(requestor.getId());
+            request.getItems().add(itemRepository.save(item));
+        }
+        saveRequest(requestor, created.plusHours(10));
+        startCounting();
+    }
+
+    @Test
+    void getAllRequestsLoadsPageAndItemsInBatch() {
+        List<ItemRequestDto> page = itemRequestService.getAllRequests(requestor.getId(), 0, 3);
+        page.forEach(request -> assertEquals(1, request.getItems().size()));
+
+        assertEquals(otherRequestIds.subList(0, 3), ids(page));
+        assertEquals(3, SqlStatementCounter.current());
+    }
+
+    @Test
+    void getAllRequestsWithoutPagingSkipsOwnRequests() {
+        List<ItemRequestDto> requests = itemRequestService.getAllRequests(requestor.getId(), null, null);
+        requests.forEach(request -> assertEquals(1, request.getItems().size()));
+
+        assertEquals(otherRequestIds, ids(requests));
+        assertEquals(3, SqlStatementCounter.current());
+    }
+
+    private ItemRequest saveRequest(User user, LocalDateTime created) {
+        ItemRequest request = new ItemRequest();
+        request.setRequestorId(user.getId());
+        request.setDescription("request of " + user.getName());
+        request.setCreated(created);
+        request.setItems(new ArrayList<>());
+        return itemRequestRepository.save(request);
+    }
+
+    private List<Long> ids(List<ItemRequestDto> requests) {
+        return requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList());
+    }
+}
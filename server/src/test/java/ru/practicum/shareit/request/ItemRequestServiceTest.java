@@ -6,14 +6,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoMapper;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserExistenceChecker;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -22,6 +21,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -34,7 +35,7 @@ class ItemRequestServiceTest {
     Pageable pageable;
 
     @Mock
-    UserRepository userRepository;
+    UserExistenceChecker userExistenceChecker;
 
     @Mock
     ItemRequestDtoMapper itemRequestDtoMapper;
@@ -71,7 +72,6 @@ class ItemRequestServiceTest {
 
     @Test
     void addItemRequest() {
-        when(userRepository.findById(any())).thenReturn(Optional.of(requestor));
         when(itemRequestRepository.save(any())).thenReturn(itemRequest);
         when(itemRequestDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemRequestDtoMapper.toRequest(any())).then(Mockito.CALLS_REAL_METHODS);
@@ -82,7 +82,6 @@ class ItemRequestServiceTest {
 
     @Test
     void getAllRequestsOfUser() {
-        when(userRepository.findById(any())).thenReturn(Optional.of(requestor));
         when(itemRequestRepository.findAllByUserId(any())).thenReturn(List.of(itemRequest));
         when(itemRequestDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemRequestDtoMapper.toRequest(any())).then(Mockito.CALLS_REAL_METHODS);
@@ -95,9 +94,8 @@ class ItemRequestServiceTest {
     void getAllRequests() {
         List<ItemRequest> itemRequestList = new ArrayList<>();
         itemRequestList.add(itemRequest);
-        when(userRepository.findById(any())).thenReturn(Optional.of(requestor));
-        when(itemRequestRepository.findAll()).thenReturn(itemRequestList);
-        when(itemRequestRepository.findAll(PageRequest.of(1, 10))).thenReturn(Page.empty());
+        when(itemRequestRepository.findAllOfOtherUsers(eq(owner.getId()))).thenReturn(itemRequestList);
+        when(itemRequestRepository.findAllOfOtherUsers(anyLong(), eq(PageRequest.of(1, 10)))).thenReturn(List.of());
         when(itemRequestDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemRequestDtoMapper.toRequest(any())).then(Mockito.CALLS_REAL_METHODS);
         List<ItemRequestDto> testListForRequestor = itemRequestService.getAllRequests(requestor.getId(), 1, 10);
@@ -114,7 +112,6 @@ class ItemRequestServiceTest {
 
     @Test
     void getRequestById() {
-        when(userRepository.findById(any())).thenReturn(Optional.of(requestor));
         when(itemRequestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
         when(itemRequestDtoMapper.toDto(any())).then(Mockito.CALLS_REAL_METHODS);
         when(itemRequestDtoMapper.toRequest(any())).then(Mockito.CALLS_REAL_METHODS);
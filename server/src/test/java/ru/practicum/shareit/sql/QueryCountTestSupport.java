@@ -0,0 +1,46 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Основа тестов числа запросов сервисов: @DataJpaTest со счётчиком SqlStatementCounter.
+ * Наследник импортирует проверяемый сервис, готовит данные и вызывает startCounting().
+ */
+@DataJpaTest
+@Import({SqlProxyConfiguration.class, SimpleMeterRegistry.class})
+public abstract class QueryCountTestSupport {
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    /**
+     * Записывает подготовленные данные и очищает контекст: считаются только запросы проверяемого кода,
+     * и ничего не берётся из кэша первого уровня.
+     */
+    protected void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.start();
+    }
+
+    @AfterEach
+    void stopCounting() {
+        SqlStatementCounter.stop();
+    }
+
+    protected User saveUser(String name) {
+        return TestUsers.save(userRepository, name);
+    }
+}
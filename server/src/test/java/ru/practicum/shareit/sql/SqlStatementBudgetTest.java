@@ -0,0 +1,166 @@
+package ru.practicum.shareit.sql;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджеты запросов к базе для эндпоинтов по заголовку X-Sql-Statement-Count.
+ * Число запросов не должно расти вместе с числом вещей, комментариев и запросов в ответе.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatementBudgetTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @Test
+    void getItemByIdStaysWithinBudget() throws Exception {
+        User owner = saveUser();
+        Item item = saveItemWithHistory(owner, 5);
+
+        int statements = statementsOf(get("/items/{itemId}", item.getId()).header(USER_ID_HEADER, owner.getId()));
+
+        assertTrue(statements <= 4, "GET /items/{itemId}: " + statements + " запросов");
+    }
+
+    @Test
+    void getItemsOfOwnerDoesNotDependOnItemCount() throws Exception {
+        User smallOwner = saveUser();
+        User largeOwner = saveUser();
+        for (int i = 0; i < 2; i++) {
+            saveItemWithHistory(smallOwner, 2);
+        }
+        for (int i = 0; i < 6; i++) {
+            saveItemWithHistory(largeOwner, 2);
+        }
+
+        int small = statementsOf(get("/items").header(USER_ID_HEADER, smallOwner.getId()));
+        int large = statementsOf(get("/items").header(USER_ID_HEADER, largeOwner.getId()));
+
+        assertEquals(small, large);
+        assertTrue(large <= 4, "GET /items: " + large + " запросов");
+    }
+
+    @Test
+    void getAllRequestsDoesNotDependOnRequestCount() throws Exception {
+        User requestor = saveUser();
+        User owner = saveUser();
+        saveRequestsWithItems(requestor, owner, 2);
+        // первый запрос пользователя кладёт его в кэш проверки существования
+        statementsOf(get("/requests/all").header(USER_ID_HEADER, owner.getId()));
+        int small = statementsOf(get("/requests/all").param("from", "0").param("size", "20")
+                .header(USER_ID_HEADER, owner.getId()));
+        saveRequestsWithItems(requestor, owner, 6);
+        int large = statementsOf(get("/requests/all").param("from", "0").param("size", "20")
+                .header(USER_ID_HEADER, owner.getId()));
+
+        assertEquals(small, large);
+        assertTrue(large <= 2, "GET /requests/all: " + large + " запросов");
+    }
+
+    private int statementsOf(MockHttpServletRequestBuilder request) throws Exception {
+        String header = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(SqlStatementCountFilter.HEADER);
+        return Integer.parseInt(header);
+    }
+
+    private User saveUser() {
+        return TestUsers.saveNumbered(userRepository, "budget");
+    }
+
+    /**
+     * У каждой аренды свой арендатор: догрузка арендаторов по одному сразу увеличит число запросов.
+     */
+    private Item saveItemWithHistory(User owner, int count) {
+        Item item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Дрель ударная");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        item = itemRepository.save(item);
+        LocalDateTime now = LocalDateTime.now();
+        saveBooking(item, saveUser(), now.plusDays(1), now.plusDays(2));
+        for (int i = 1; i <= count; i++) {
+            User booker = saveUser();
+            saveBooking(item, booker, now.minusDays(3L * i), now.minusDays(3L * i - 1));
+
+            Comment comment = new Comment();
+            comment.setItemId(item.getId());
+            comment.setAuthorId(booker.getId());
+            comment.setAuthorName(booker.getName());
+            comment.setText("Комментарий " + i);
+            comment.setCreated(now.minusDays(3L * i - 1));
+            commentRepository.save(comment);
+        }
+        return item;
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+    }
+
+    private void saveRequestsWithItems(User requestor, User owner, int count) {
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            item.setName("Отвёртка " + i);
+            item.setDescription("Отвёртка крестовая");
+            item.setAvailable(true);
+            item.setOwnerId(owner.getId());
+            ItemRequest request = new ItemRequest();
+            request.setRequestorId(requestor.getId());
+            request.setDescription("Нужна отвёртка " + i);
+            request.setCreated(LocalDateTime.now());
+            request.setItems(new ArrayList<>());
+            request.getItems().add(itemRepository.save(item));
+            itemRequestRepository.save(request);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.user;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пользователи для тестов с базой.
+ */
+public final class TestUsers {
+    private static final AtomicInteger NUMBER = new AtomicInteger();
+
+    private TestUsers() {
+    }
+
+    /**
+     * Пользователь name с адресом name@email.ru.
+     */
+    public static User save(UserRepository userRepository, String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@email.ru");
+        return userRepository.save(user);
+    }
+
+    /**
+     * Пользователь с номером, уникальным в пределах запуска: для тестов с общим контекстом
+     * @SpringBootTest, где данные не откатываются и адреса не должны повторяться.
+     */
+    public static User saveNumbered(UserRepository userRepository, String prefix) {
+        int number = NUMBER.incrementAndGet();
+        User user = new User();
+        user.setName(prefix + " " + number);
+        user.setEmail(prefix + number + "@email.ru");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserExistenceCheckerTest {
+
+    @Autowired
+    UserExistenceChecker userExistenceChecker;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @AfterEach
+    void resetRequestAttributes() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void checkExistsCachesUserUntilUpdateOrDelete() {
+        UserDto userDto = new UserDto();
+        userDto.setName("cached");
+        userDto.setEmail("cached@email.ru");
+        Long userId = userService.addUser(userDto).getId();
+        Cache cache = cacheManager.getCache(UserExistenceChecker.USER_EXISTS_CACHE);
+
+        userExistenceChecker.checkExists(userId);
+        assertEquals(Boolean.TRUE, cache.get(userId, Boolean.class));
+
+        userDto.setName("updated");
+        userService.updateUser(userId, userDto);
+        assertNull(cache.get(userId));
+
+        userExistenceChecker.checkExists(userId);
+        userService.deleteUserById(userId);
+        assertNull(cache.get(userId));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Exception exception = assertThrows(NotFoundException.class, () -> userExistenceChecker.checkExists(userId));
+        assertEquals("Пользователь с id=" + userId + " не найден", exception.getMessage());
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        assertThrows(NotFoundException.class, () -> userExistenceChecker.checkExists(999L));
+        assertNull(cacheManager.getCache(UserExistenceChecker.USER_EXISTS_CACHE).get(999L));
+    }
+}
@@ -5,9 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.WrongDataException;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
 
@@ -28,6 +30,12 @@ class UserServiceTest {
     @Mock
     UserDtoMapper userDtoMapper;
 
+    @Mock
+    ItemRepository itemRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     UserService userService;
 
@@ -113,6 +121,23 @@ class UserServiceTest {
         assertEquals(testUser.getEmail(), user1.getEmail());
     }
 
+    @Test
+    void updateUserChangesVersionsOfBookedItemsOnlyWhenChanged() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user1));
+        when(userRepository.save(any())).thenReturn(user1);
+        UserDto sameData = new UserDto();
+        sameData.setName("userName1");
+        sameData.setEmail("user1@email.com");
+        userService.updateUser(1L, sameData);
+        verify(itemRepository, never()).incrementVersionOfItemsBookedBy(anyLong());
+
+        UserDto newName = new UserDto();
+        newName.setName("newName");
+        userService.updateUser(1L, newName);
+        verify(itemRepository).incrementVersionOfItemsBookedBy(1L);
+        assertEquals("newName", user1.getName());
+    }
+
     @Test
     void updateUserWrongId() {
         Exception exception = assertThrows(NotFoundException.class, () -> userService.updateUser(99L, userDto1));
@@ -127,6 +152,14 @@ class UserServiceTest {
         assertThrows(NotFoundException.class, () -> userService.deleteUserById(1L));
     }
 
+    @Test
+    void deleteUserPublishesEvent() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user1));
+        when(userDtoMapper.mapUser(any())).thenReturn(userDto1);
+        userService.deleteUserById(1L);
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(1L));
+    }
+
     @Test
     void deleteUserWrongId() {
         assertThrows(NotFoundException.class, () -> userService.deleteUserById(1L));